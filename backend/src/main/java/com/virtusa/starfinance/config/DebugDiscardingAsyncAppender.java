@@ -0,0 +1,19 @@
+package com.virtusa.starfinance.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Async appender for the prod logging profile (logback-spring.xml). Logback's AsyncAppender drops
+ * TRACE, DEBUG and INFO once the queue is within {@code discardingThreshold} of full; this one only
+ * drops TRACE and DEBUG, so INFO and above wait for space and request samples, warnings and errors are
+ * never lost under load.
+ */
+public class DebugDiscardingAsyncAppender extends AsyncAppender {
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= Level.DEBUG_INT;
+    }
+}
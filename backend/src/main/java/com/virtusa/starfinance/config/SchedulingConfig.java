@@ -0,0 +1,12 @@
+package com.virtusa.starfinance.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. the gold rate snapshot refresh in BullionService).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
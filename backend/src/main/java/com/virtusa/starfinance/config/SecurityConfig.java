@@ -1,7 +1,11 @@
 package com.virtusa.starfinance.config;
 
 import com.virtusa.starfinance.handler.OAuth2AuthenticationSuccessHandler;
+import com.virtusa.starfinance.security.BoundedPasswordEncoder;
+import com.virtusa.starfinance.security.TunablePasswordEncoder;
 import com.virtusa.starfinance.service.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,7 +15,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -52,9 +55,27 @@ public class SecurityConfig {
         this.oAuth2FailureHandler = oAuth2FailureHandler;
     }
 
+    /**
+     * Password hashing on a dedicated, size-capped pool: request threads only wait for their turn and
+     * overflow is rejected with 429 rather than tying up every Tomcat thread during login bursts.
+     * A pool size of 0 means one thread per available core.
+     * New hashes use the configured algorithm/cost; older hashes are upgraded on the next successful
+     * login (UserDetailsServiceImpl implements UserDetailsPasswordService).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+                                           @Value("${security.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+                                           @Value("${security.password.argon2.iterations:2}") int argon2Iterations,
+                                           @Value("${security.password.argon2.parallelism:1}") int argon2Parallelism,
+                                           @Value("${security.password.hashing-threads:0}") int hashingThreads,
+                                           @Value("${security.password.hashing-queue-capacity:64}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        TunablePasswordEncoder target = new TunablePasswordEncoder(
+                TunablePasswordEncoder.Algorithm.valueOf(algorithm.toUpperCase()),
+                bcryptStrength, argon2MemoryKib, argon2Iterations, argon2Parallelism);
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(target, threads, queueCapacity, meterRegistry);
     }
 
     @Bean
@@ -74,7 +95,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/auth/**", "/oauth2/**", "/login/oauth2/**").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
-                        .requestMatchers("/api/bullion/rates").permitAll()
+                        .requestMatchers("/api/bullion/rates", "/api/bullion/rates/stream", "/api/bullion/rates/history").permitAll()
 
                         // 2. EMPLOYEE-SPECIFIC PATHS (Role-based access)
                         // Explicit GET paths for detail views
@@ -83,6 +104,10 @@ public class SecurityConfig {
                                 "/api/customer/employee/loan/{rid}"
                         ).hasAnyRole(ROLE_BANK_STAFF, ROLE_BANK_ADMIN) // <-- Used Constant
 
+                        // Bulk loan and KYC reference imports are admin-only (must precede the general employee paths)
+                        .requestMatchers(HttpMethod.POST, "/api/customer/employee/loans/import",
+                                "/api/customer/employee/kyc/references/import").hasRole(ROLE_BANK_ADMIN)
+
                         // General Employee Paths
                         .requestMatchers("/api/customer/employee/**", "/api/employee/**")
                         .hasAnyRole(ROLE_BANK_STAFF, ROLE_BANK_ADMIN) // <-- Used Constant
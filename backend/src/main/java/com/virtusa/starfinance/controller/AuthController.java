@@ -2,10 +2,11 @@ package com.virtusa.starfinance.controller;
 
 import com.virtusa.starfinance.dto.*;
 import com.virtusa.starfinance.entity.Customer;
-import com.virtusa.starfinance.entity.Employee;
 import com.virtusa.starfinance.repository.CustomerRepository;
-import com.virtusa.starfinance.repository.EmployeeRepository;
+import com.virtusa.starfinance.security.PasswordHashingBusyException;
+import com.virtusa.starfinance.service.AuthenticatedUser;
 import com.virtusa.starfinance.service.JwtService;
+import com.virtusa.starfinance.service.UserDetailsServiceImpl;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
@@ -23,7 +24,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import com.virtusa.starfinance.service.AuthService;
 import java.util.NoSuchElementException;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -35,7 +35,7 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final CustomerRepository customerRepository;
-    private final EmployeeRepository employeeRepository;
+    private final UserDetailsServiceImpl userDetailsService;
     private final AuthService authService;
 
 
@@ -63,20 +63,18 @@ public class AuthController {
     public ResponseEntity<JwtResponse> loginCustomer(@Valid @RequestBody LoginRequest request) {
         String email = request.getEmail();
 
-        Optional<Employee> employee = employeeRepository.findByUsername(email);
+        // Single lookup across both account tables; authenticate() below is then served from cache
+        AuthenticatedUser account = userDetailsService.findAccount(email)
+                .orElseThrow(() -> new org.springframework.security.authentication.BadCredentialsException(
+                        "Invalid username or password."
+                ));
 
-        if (employee.isPresent()) {
+        if (account.isEmployee()) {
             throw new org.springframework.security.authentication.BadCredentialsException(
                     "User must log in via the Employee portal."
             );
         }
 
-        if (customerRepository.findByEmail(email).isEmpty()) {
-            throw new org.springframework.security.authentication.BadCredentialsException(
-                    "Invalid username or password."
-            );
-        }
-
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, request.getPassword()));
 
@@ -89,9 +87,11 @@ public class AuthController {
     public ResponseEntity<JwtResponse> loginEmployee(@Valid @RequestBody LoginRequest request) {
         String username = request.getEmail();
 
-        Optional<Employee> employee = employeeRepository.findByUsername(username);
+        boolean employee = userDetailsService.findAccount(username)
+                .map(AuthenticatedUser::isEmployee)
+                .orElse(false);
 
-        if (employee.isEmpty()) {
+        if (!employee) {
             throw new org.springframework.security.authentication.BadCredentialsException("Invalid username or password.");
         }
 
@@ -118,6 +118,8 @@ public class AuthController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found.");
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Verification failed: Email or date of birth is incorrect.");
+        } catch (PasswordHashingBusyException e) {
+            throw e; // 429 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Password reset failed: " + e.getMessage());
         }
@@ -136,6 +138,8 @@ public class AuthController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found.");
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Verification failed: Credentials are incorrect.");
+        } catch (PasswordHashingBusyException e) {
+            throw e; // 429 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Employee password reset failed: " + e.getMessage());
         }
@@ -167,6 +171,8 @@ public class AuthController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (NoSuchElementException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found.");
+        } catch (PasswordHashingBusyException e) {
+            throw e; // 429 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Password change failed: " + e.getMessage());
         }
@@ -185,6 +191,8 @@ public class AuthController {
             return ResponseEntity.ok("Password updated successfully.");
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (PasswordHashingBusyException e) {
+            throw e; // 429 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Employee password change failed: " + e.getMessage());
         }
@@ -1,29 +1,145 @@
 package com.virtusa.starfinance.controller;
 
-import com.virtusa.starfinance.dto.GoldRateResponse;
+import com.virtusa.starfinance.dto.GoldRateHistoryResponse;
 import com.virtusa.starfinance.service.BullionService;
-import lombok.RequiredArgsConstructor;
+import com.virtusa.starfinance.service.GoldRateBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/bullion")
-@RequiredArgsConstructor
 public class BullionController {
 
+    private static final String GZIP = "gzip";
+
     private final BullionService bullionService;
+    private final GoldRateBroadcaster goldRateBroadcaster;
+    private final CacheControl ratesCacheControl;
+
+    public BullionController(BullionService bullionService,
+                             GoldRateBroadcaster goldRateBroadcaster,
+                             @Value("${bullion.rates.max-age-seconds:15}") long ratesMaxAgeSeconds) {
+        this.bullionService = bullionService;
+        this.goldRateBroadcaster = goldRateBroadcaster;
+        this.ratesCacheControl = CacheControl.maxAge(Duration.ofSeconds(ratesMaxAgeSeconds)).cachePublic();
+    }
 
     /**
-     * Endpoint to fetch live gold rates from the database.
+     * Endpoint to fetch live gold rates from the in-memory snapshot.
      * GET /api/bullion/rates
+     * The body is the snapshot's pre-encoded JSON (gzip when accepted), written without Jackson.
+     * Repeat polls carrying a matching If-None-Match get 304 with no body.
      */
     @GetMapping("/rates")
-    public ResponseEntity<List<GoldRateResponse>> getLiveGoldRates() {
-        List<GoldRateResponse> rates = bullionService.getAllRates();
-        return ResponseEntity.ok(rates);
+    public ResponseEntity<byte[]> getLiveGoldRates(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+
+        BullionService.RateSnapshot snapshot = bullionService.getSnapshot();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(ratesCacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(ratesCacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(snapshot.gzipJson());
+        }
+        return response.body(snapshot.json());
+    }
+
+    /**
+     * Whether an Accept-Encoding header admits gzip: listed with a q-value above 0, or not listed
+     * while "*" has one. Codings are case-insensitive and q defaults to 1; a malformed q counts as 0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equalsIgnoreCase(GZIP)) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    /**
+     * Server-sent event stream of gold rates; pushes a "rates" event only when a rate changes,
+     * plus periodic heartbeat comments.
+     * GET /api/bullion/rates/stream
+     */
+    @GetMapping(value = "/rates/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGoldRates(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            return goldRateBroadcaster.subscribe(lastEventId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    /**
+     * Downsampled rate history of one karat, e.g. for charting.
+     * GET /api/bullion/rates/history?karat=22 Karat&from=2025-01-01T00:00:00&to=2026-01-01T00:00:00&points=300
+     * Each point carries the min/max/avg of the ticks in its bucket; empty buckets are omitted.
+     */
+    @GetMapping("/rates/history")
+    public ResponseEntity<GoldRateHistoryResponse> getGoldRateHistory(
+            @RequestParam String karat,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer points) {
+        try {
+            return ResponseEntity.ok(bullionService.getRateHistory(karat, from, to, points));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,40 @@
 package com.virtusa.starfinance.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.virtusa.starfinance.dto.*;
 import com.virtusa.starfinance.entity.Employee;
 import com.virtusa.starfinance.repository.EmployeeRepository;
+import com.virtusa.starfinance.security.PasswordHashingBusyException;
 import com.virtusa.starfinance.service.EmployeeCreationService;
+import com.virtusa.starfinance.service.KycReferenceImportService;
 import com.virtusa.starfinance.service.LoanApplicationService;
+import com.virtusa.starfinance.service.LoanImportService;
+import com.virtusa.starfinance.service.LoanStateMachine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.NoSuchElementException;
 import java.util.List;
 
@@ -26,6 +47,9 @@ public class EmployeeActionsController {
     private final LoanApplicationService loanApplicationService;
     private final EmployeeRepository employeeRepository;
     private final EmployeeCreationService employeeCreationService;
+    private final LoanImportService loanImportService;
+    private final KycReferenceImportService kycReferenceImportService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Handles loan status updates initiated by bank employees. (Step 1, 4, 6)
@@ -45,13 +69,150 @@ public class EmployeeActionsController {
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } catch (NoSuchElementException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Loan application not found with ID: " + rid);
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | IllegalStateException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            throw e; // 409 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update loan status: " + e.getMessage());
         }
     }
 
+    /**
+     * Applies many employee status updates in one round trip (e.g. approving a page of the queue).
+     * Always 200; each item reports its own outcome so one bad RID does not fail the sweep.
+     * POST /api/customer/employee/loans/status
+     */
+    @PostMapping("/loans/status")
+    public ResponseEntity<BulkLoanStatusUpdateResponse> updateLoanStatuses(
+            @Valid @RequestBody BulkLoanStatusUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(loanApplicationService.updateLoanStatuses(request.getItems()));
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update loan statuses: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Branch migration: streams historical loans in as CSV (header row of LoanImportRow field names) or
+     * NDJSON, and streams back NDJSON: one REJECTED line per bad row, a PROGRESS line per committed batch
+     * and a final COMPLETED line. Neither side is held in memory, so files of any size can be sent.
+     * POST /api/customer/employee/loans/import
+     */
+    @PostMapping(value = "/loans/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public void importLoans(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, HttpServletRequest request,
+                            HttpServletResponse response, Authentication authentication) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        LoanImportService.Format format = mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? LoanImportService.Format.CSV
+                : LoanImportService.Format.NDJSON;
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer out = response.getWriter();
+        LoanImportSummary[] lastProgress = {new LoanImportSummary(0, 0, 0)};
+        LoanImportService.Listener listener = new LoanImportService.Listener() {
+            @Override
+            public void rowRejected(long line, String rid, String message) {
+                writeLine(out, LoanImportEvent.rejected(line, rid, message));
+            }
+
+            @Override
+            public void batchCommitted(LoanImportSummary progress) {
+                lastProgress[0] = progress;
+                writeLine(out, LoanImportEvent.totals(LoanImportEvent.Type.PROGRESS, progress, null));
+                flush(response);
+            }
+        };
+
+        try (Reader in = new InputStreamReader(request.getInputStream(), charset)) {
+            LoanImportSummary summary = loanImportService.importLoans(in, format, authentication.getName(), listener);
+            writeLine(out, LoanImportEvent.totals(LoanImportEvent.Type.COMPLETED, summary, null));
+        } catch (IllegalArgumentException e) {
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            writeLine(out, LoanImportEvent.totals(LoanImportEvent.Type.ABORTED, lastProgress[0], e.getMessage()));
+        } catch (Exception e) {
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Loan import failed: " + e.getMessage());
+            }
+            // Batches already reported as committed stay committed; tell the client where it stopped
+            writeLine(out, LoanImportEvent.totals(LoanImportEvent.Type.ABORTED, lastProgress[0], "Loan import failed: " + e.getMessage()));
+        }
+        out.flush();
+    }
+
+    /**
+     * Refreshes the KYC reference data from a CSV extract (aadhaarNumber, panNumber, fullName columns;
+     * snake_case names also accepted), upserting on Aadhaar. Streams back NDJSON like the loan import,
+     * with the running throughput on each PROGRESS line; the upload is never held in memory.
+     * POST /api/customer/employee/kyc/references/import
+     */
+    @PostMapping(value = "/kyc/references/import", consumes = "text/csv", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('BANK_ADMIN')")
+    public void importKycReferences(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer out = response.getWriter();
+        KycReferenceImportSummary[] lastProgress = {new KycReferenceImportSummary(0, 0, 0, 0)};
+        KycReferenceImportService.Listener listener = new KycReferenceImportService.Listener() {
+            @Override
+            public void rowRejected(long line, String message) {
+                writeLine(out, KycReferenceImportEvent.rejected(line, message));
+            }
+
+            @Override
+            public void batchCommitted(KycReferenceImportSummary progress) {
+                lastProgress[0] = progress;
+                writeLine(out, KycReferenceImportEvent.totals(KycReferenceImportEvent.Type.PROGRESS, progress, null));
+                flush(response);
+            }
+        };
+
+        try (ReadableByteChannel in = Channels.newChannel(request.getInputStream())) {
+            KycReferenceImportSummary summary = kycReferenceImportService.importReferences(in, charset, listener);
+            writeLine(out, KycReferenceImportEvent.totals(KycReferenceImportEvent.Type.COMPLETED, summary, null));
+        } catch (IllegalArgumentException e) {
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            writeLine(out, KycReferenceImportEvent.totals(KycReferenceImportEvent.Type.ABORTED, lastProgress[0], e.getMessage()));
+        } catch (Exception e) {
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "KYC reference import failed: " + e.getMessage());
+            }
+            writeLine(out, KycReferenceImportEvent.totals(KycReferenceImportEvent.Type.ABORTED, lastProgress[0],
+                    "KYC reference import failed: " + e.getMessage()));
+        }
+        out.flush();
+    }
+
+    /**
+     * Statuses an employee may move this loan to next, so the UI only shows actions that will succeed.
+     * GET /api/customer/employee/loan/{rid}/next-actions
+     */
+    @GetMapping("/loan/{rid}/next-actions")
+    public ResponseEntity<LoanNextActionsResponse> getNextActions(@PathVariable String rid) {
+        try {
+            return ResponseEntity.ok(loanApplicationService.getAllowedNextStatuses(rid, LoanStateMachine.Actor.EMPLOYEE));
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Loan application not found with ID: " + rid);
+        }
+    }
+
     @PostMapping("/loan/{rid}/evaluate")
     public ResponseEntity<String> submitEvaluationData(
             @PathVariable String rid,
@@ -64,6 +225,8 @@ public class EmployeeActionsController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Loan application not found with ID: " + rid);
         } catch (IllegalStateException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            throw e; // 409 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to submit evaluation data: " + e.getMessage());
         }
@@ -79,6 +242,8 @@ public class EmployeeActionsController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (NoSuchElementException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Loan application not found.");
+        } catch (OptimisticLockingFailureException e) {
+            throw e; // 409 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Disbursement failed: " + e.getMessage());
         }
@@ -93,6 +258,8 @@ public class EmployeeActionsController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (NoSuchElementException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Loan application not found.");
+        } catch (OptimisticLockingFailureException e) {
+            throw e; // 409 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Gold collection failed: " + e.getMessage());
         }
@@ -109,6 +276,8 @@ public class EmployeeActionsController {
         } catch (IllegalArgumentException e) {
             // e.g., Username already exists, invalid role
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (PasswordHashingBusyException e) {
+            throw e; // 429 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create new employee: " + e.getMessage());
         }
@@ -137,6 +306,25 @@ public class EmployeeActionsController {
     }
 
 
+    /**
+     * Keyset-paginated loan queue for the Employee Dashboard, newest first.
+     * GET /api/customer/employee/loans/queue?status=PENDING&from=2025-01-01&to=2025-01-31&size=25&cursor=...
+     */
+    @GetMapping("/loans/queue")
+    public ResponseEntity<LoanQueuePage> getLoanQueue(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        try {
+            return ResponseEntity.ok(loanApplicationService.getLoanQueue(status, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @GetMapping("/loan/{rid}")
     public ResponseEntity<LoanDetailsResponse> getLoanDetailsById(@PathVariable String rid, Authentication authentication) {
 
@@ -149,4 +337,21 @@ public class EmployeeActionsController {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to retrieve loan details.");
         }
     }
-}
\ No newline at end of file
+
+    private void writeLine(Writer out, Object event) {
+        try {
+            out.write(objectMapper.writeValueAsString(event));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(HttpServletResponse response) {
+        try {
+            response.flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
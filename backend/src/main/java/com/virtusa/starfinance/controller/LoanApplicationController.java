@@ -6,6 +6,7 @@ import com.virtusa.starfinance.service.LoanApplicationService;
 import com.virtusa.starfinance.repository.CustomerRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -106,6 +107,8 @@ public class LoanApplicationController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Loan application not found or status invalid.");
         } catch (IllegalStateException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            throw e; // 409 via GlobalExceptionHandler
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to confirm gold submission: " + e.getMessage());
         }
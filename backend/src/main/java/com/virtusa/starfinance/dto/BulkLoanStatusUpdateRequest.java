@@ -0,0 +1,32 @@
+package com.virtusa.starfinance.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkLoanStatusUpdateRequest {
+
+    @NotEmpty(message = "At least one item is required.")
+    @Size(max = 500, message = "At most 500 items per request.")
+    private List<@Valid Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        @NotBlank(message = "RID is required.")
+        private String rid;
+        @NotBlank(message = "New status is required.")
+        private String newStatus;
+        private String rejectionReason;
+    }
+}
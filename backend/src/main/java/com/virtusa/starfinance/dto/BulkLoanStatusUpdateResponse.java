@@ -0,0 +1,30 @@
+package com.virtusa.starfinance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status update, one result per request item in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkLoanStatusUpdateResponse {
+    private int updated;
+    private int failed;
+    private List<ItemResult> results;
+
+    public enum Outcome { UPDATED, NOT_FOUND, INVALID_STATUS, INVALID_TRANSITION, CONFLICT, DUPLICATE }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private String rid;
+        private Outcome outcome;
+        private String message;         // Null when updated
+    }
+}
@@ -0,0 +1,29 @@
+package com.virtusa.starfinance.dto;
+
+/**
+ * The customer columns the KYC form writes, selected without loading the entity so a re-submit can be
+ * compared field by field and only the changed columns updated.
+ */
+public record CustomerKycProfileView(
+        Long id,
+        String email,
+        String aadhaar,
+        String panCard,
+        String knNumber,
+        Boolean kycStatus,
+        Boolean kycVerified,
+        String name,
+        String dateOfBirth,
+        String gender,
+        String mobileNumber,
+        String passportNumber,
+        String fullAddress,
+        String city,
+        String state,
+        String pinCode,
+        String occupation,
+        String income,
+        String bankAccountNumber,
+        String ifscCode,
+        String existingLoans) {
+}
@@ -0,0 +1,10 @@
+package com.virtusa.starfinance.dto;
+
+/**
+ * The customer columns a loan needs before it can be created, selected without loading the entity.
+ */
+public record CustomerKycStateView(
+        Long id,
+        String email,
+        Boolean kycVerified) {
+}
@@ -0,0 +1,18 @@
+package com.virtusa.starfinance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GoldRateHistoryPoint {
+    private LocalDateTime bucketStart; // Inclusive start of the bucket
+    private Double min;
+    private Double max;
+    private Double avg;
+    private int samples;               // Number of ticks folded into this point
+}
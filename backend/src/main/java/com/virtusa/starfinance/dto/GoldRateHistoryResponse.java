@@ -0,0 +1,19 @@
+package com.virtusa.starfinance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GoldRateHistoryResponse {
+    private String karat;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long bucketSeconds;              // Width of each point; empty buckets are omitted
+    private List<GoldRateHistoryPoint> points;
+}
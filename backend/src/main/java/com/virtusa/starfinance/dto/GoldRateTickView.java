@@ -0,0 +1,10 @@
+package com.virtusa.starfinance.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of one gold_rate_history row.
+ */
+public record GoldRateTickView(Long id, LocalDateTime recordedAt, BigDecimal ratePerGram) {
+}
@@ -0,0 +1,30 @@
+package com.virtusa.starfinance.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One NDJSON line of the KYC reference load response: a rejected row, progress with throughput after
+ * each committed batch, and a final completed (or aborted) line with the totals.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record KycReferenceImportEvent(
+        Type type,
+        Long line,
+        String message,
+        Long processed,
+        Long upserted,
+        Long failed,
+        Long elapsedMillis,
+        Long rowsPerSecond) {
+
+    public enum Type { REJECTED, PROGRESS, COMPLETED, ABORTED }
+
+    public static KycReferenceImportEvent rejected(long line, String message) {
+        return new KycReferenceImportEvent(Type.REJECTED, line, message, null, null, null, null, null);
+    }
+
+    public static KycReferenceImportEvent totals(Type type, KycReferenceImportSummary summary, String message) {
+        return new KycReferenceImportEvent(type, null, message, summary.processed(), summary.upserted(), summary.failed(),
+                summary.elapsedMillis(), summary.rowsPerSecond());
+    }
+}
@@ -0,0 +1,11 @@
+package com.virtusa.starfinance.dto;
+
+/**
+ * Running totals of a bulk KYC reference load; processed = upserted + failed.
+ */
+public record KycReferenceImportSummary(long processed, long upserted, long failed, long elapsedMillis) {
+
+    public long rowsPerSecond() {
+        return elapsedMillis == 0 ? processed * 1000 : processed * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,10 @@
+package com.virtusa.starfinance.dto;
+
+/**
+ * The identity columns of a KYC reference row, selected without loading the entity.
+ */
+public record KycReferenceKeyView(
+        Long id,
+        String aadhaarNumber,
+        String panNumber) {
+}
@@ -3,6 +3,7 @@ package com.virtusa.starfinance.dto;
 import com.virtusa.starfinance.entity.LoanApplication;
 import lombok.Data;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Data
@@ -20,7 +21,11 @@ public class LoanDetailsResponse {
     private FinancialDetails financial;
 
     public void setCreatedAt(LoanApplication loan) {
-        this.date = loan.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        setCreatedAt(loan.getCreatedAt());
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.date = createdAt.format(DateTimeFormatter.ISO_LOCAL_DATE);
     }
 
     public void setStatus(LoanApplication.LoanStatus status) {
@@ -0,0 +1,27 @@
+package com.virtusa.starfinance.dto;
+
+import com.virtusa.starfinance.entity.Asset;
+import com.virtusa.starfinance.entity.LoanApplication;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row selected by LoanApplicationRepository.findDetailsByRid.
+ * Joins loan, customer and asset in one statement for the LoanDetailsResponse view.
+ */
+public record LoanDetailsView(
+        String rid,
+        LoanApplication.LoanStatus status,
+        LocalDateTime createdAt,
+        BigDecimal amount,
+        String rejectionReason,
+        String customerName,
+        String knNumber,
+        String mobileNumber,
+        String email,
+        String bankAccountNumber,
+        String ifscCode,
+        Asset.AssetType assetType,
+        BigDecimal assetWeight) {
+}
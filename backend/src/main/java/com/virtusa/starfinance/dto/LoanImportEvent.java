@@ -0,0 +1,28 @@
+package com.virtusa.starfinance.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One NDJSON line of the bulk import response: a rejected row, progress after each committed batch,
+ * and a final completed (or aborted) line with the totals.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LoanImportEvent(
+        Type type,
+        Long line,
+        String rid,
+        String message,
+        Long processed,
+        Long imported,
+        Long failed) {
+
+    public enum Type { REJECTED, PROGRESS, COMPLETED, ABORTED }
+
+    public static LoanImportEvent rejected(long line, String rid, String message) {
+        return new LoanImportEvent(Type.REJECTED, line, rid, message, null, null, null);
+    }
+
+    public static LoanImportEvent totals(Type type, LoanImportSummary summary, String message) {
+        return new LoanImportEvent(type, null, null, message, summary.processed(), summary.imported(), summary.failed());
+    }
+}
@@ -0,0 +1,27 @@
+package com.virtusa.starfinance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One historical loan in a bulk import, bound from an NDJSON line or a CSV row with the same
+ * column names. Required: customerEmail, purity, netWeight, amount. A missing rid is generated,
+ * a missing status defaults to PENDING and a missing createdAt to the import time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanImportRow {
+    private String rid;
+    private String customerEmail;
+    private String purity;          // Same codes as the loan form, e.g. "22K"
+    private BigDecimal netWeight;
+    private BigDecimal amount;
+    private String status;
+    private BigDecimal finalValue;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,7 @@
+package com.virtusa.starfinance.dto;
+
+/**
+ * Running totals of a bulk loan import; processed = imported + failed.
+ */
+public record LoanImportSummary(long processed, long imported, long failed) {
+}
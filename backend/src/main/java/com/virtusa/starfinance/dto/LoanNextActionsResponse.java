@@ -0,0 +1,20 @@
+package com.virtusa.starfinance.dto;
+
+import com.virtusa.starfinance.entity.LoanApplication;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Current status of a loan and the statuses the caller's role may move it to; empty when no action is available.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanNextActionsResponse {
+    private String rid;
+    private LoanApplication.LoanStatus status;
+    private List<LoanApplication.LoanStatus> allowedNextStatuses;
+}
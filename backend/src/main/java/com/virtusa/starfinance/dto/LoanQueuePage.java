@@ -0,0 +1,20 @@
+package com.virtusa.starfinance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the employee loan queue.
+ * Pass nextCursor back as the cursor parameter to fetch the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanQueuePage {
+    private List<LoanResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
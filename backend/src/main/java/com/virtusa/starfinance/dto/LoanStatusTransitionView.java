@@ -0,0 +1,13 @@
+package com.virtusa.starfinance.dto;
+
+import com.virtusa.starfinance.entity.LoanApplication;
+
+/**
+ * The columns a status transition reads and writes, selected without loading the entity.
+ */
+public record LoanStatusTransitionView(
+        Long id,
+        String rid,
+        LoanApplication.LoanStatus status,
+        Long version) {
+}
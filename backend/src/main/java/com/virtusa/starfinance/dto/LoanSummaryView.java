@@ -0,0 +1,24 @@
+package com.virtusa.starfinance.dto;
+
+import com.virtusa.starfinance.entity.Asset;
+import com.virtusa.starfinance.entity.LoanApplication;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row selected by LoanApplicationRepository constructor expressions.
+ * Carries exactly the columns needed to build a LoanResponse, so list endpoints
+ * never touch the lazy customer/asset associations.
+ */
+public record LoanSummaryView(
+        Long id,
+        String rid,
+        LoanApplication.LoanStatus status,
+        LocalDateTime createdAt,
+        BigDecimal finalValue,
+        String rejectionReason,
+        String customerName,
+        String knNumber,
+        Asset.AssetType assetType) {
+}
@@ -9,7 +9,9 @@ import lombok.Data;
 public class BankAccount {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bankaccount_id")
+    @TableGenerator(name = "bankaccount_id", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_val", pkColumnValue = "bankaccount", allocationSize = 50)
     private Long id;
 
     @Column(name = "account_holder_name", nullable = false)
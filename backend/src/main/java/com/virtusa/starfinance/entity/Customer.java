@@ -14,7 +14,9 @@ import org.hibernate.annotations.DynamicUpdate;
 @DynamicUpdate
 public class Customer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_id")
+    @TableGenerator(name = "customer_id", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_val", pkColumnValue = "customer", allocationSize = 50)
     private Long id;
 
     @Column(name = "name")
@@ -86,6 +88,10 @@ public class Customer {
     @Column(name = "oauth_id", unique = true)
     private String oauthId;
 
+    // Bumped on every password change/reset; JWTs carrying an older value are rejected
+    @Column(name = "token_version", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int tokenVersion;
+
     @Transient
     public String getRole() {
         return "ROLE_CUSTOMER";
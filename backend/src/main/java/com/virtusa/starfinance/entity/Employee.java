@@ -13,7 +13,9 @@ import lombok.Setter;
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "employee_id")
+    @TableGenerator(name = "employee_id", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_val", pkColumnValue = "employee", allocationSize = 50)
     private Long id;
 
     // Use username for email/login ID as per standard practice
@@ -34,6 +36,10 @@ public class Employee {
     @Column(name = "branch_name", nullable = false)
     private String branchName;
 
+    // Bumped on every password change/reset; JWTs carrying an older value are rejected
+    @Column(name = "token_version", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int tokenVersion;
+
     public enum Role {
         BANK_ADMIN, BANK_STAFF
     }
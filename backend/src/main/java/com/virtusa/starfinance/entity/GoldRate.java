@@ -8,6 +8,7 @@ import java.math.BigDecimal;
 
 @Entity
 @Table(name = "gold_rates")
+@EntityListeners(GoldRateChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
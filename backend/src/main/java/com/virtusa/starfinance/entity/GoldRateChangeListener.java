@@ -0,0 +1,32 @@
+package com.virtusa.starfinance.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener that announces writes to gold_rates so in-memory rate snapshots can refresh.
+ * Instantiated by Hibernate through Spring's bean container, hence the constructor injection.
+ */
+public class GoldRateChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GoldRateChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(GoldRate goldRate) {
+        eventPublisher.publishEvent(new GoldRateChangedEvent(goldRate.getKaratLabel()));
+    }
+
+    /**
+     * Published whenever a GoldRate row is inserted, updated or deleted.
+     */
+    public record GoldRateChangedEvent(String karatLabel) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.virtusa.starfinance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only tick of a karat's rate, written whenever the live GoldRate value changes.
+ */
+@Entity
+@Immutable
+@Table(name = "gold_rate_history", indexes = {
+        // Range scans backing GoldRateHistoryRepository
+        @Index(name = "idx_gold_rate_history_karat_time", columnList = "karat_label, recorded_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoldRateHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "karat_label", nullable = false)
+    private String karatLabel;
+
+    @Column(name = "rate_per_gram", nullable = false)
+    private BigDecimal ratePerGram;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+}
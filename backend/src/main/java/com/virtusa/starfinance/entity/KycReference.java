@@ -1,12 +1,14 @@
 package com.virtusa.starfinance.entity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 
 @Entity
+@EntityListeners(KycReferenceChangeListener.class)
 public class KycReference {
 
     @Id
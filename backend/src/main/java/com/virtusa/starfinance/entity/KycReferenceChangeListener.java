@@ -0,0 +1,48 @@
+package com.virtusa.starfinance.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener that announces writes to kyc_reference so the in-memory KYC index can follow them.
+ * Instantiated by Hibernate through Spring's bean container, hence the constructor injection.
+ */
+public class KycReferenceChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public KycReferenceChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onInsert(KycReference reference) {
+        publish(reference, Change.INSERTED);
+    }
+
+    @PostUpdate
+    public void onUpdate(KycReference reference) {
+        publish(reference, Change.UPDATED);
+    }
+
+    @PostRemove
+    public void onRemove(KycReference reference) {
+        publish(reference, Change.REMOVED);
+    }
+
+    private void publish(KycReference reference, Change change) {
+        eventPublisher.publishEvent(new KycReferenceChangedEvent(
+                reference.getId(), reference.getAadhaarNumber(), reference.getPanNumber(), change));
+    }
+
+    public enum Change { INSERTED, UPDATED, REMOVED }
+
+    /**
+     * Published whenever a KycReference row is inserted, updated or deleted; carries the row's
+     * current (for REMOVED, last) Aadhaar/PAN pair.
+     */
+    public record KycReferenceChangedEvent(Long id, String aadhaarNumber, String panNumber, Change change) {
+    }
+}
@@ -7,11 +7,17 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "loanapplication")
+@Table(name = "loanapplication", indexes = {
+        // Keyset indexes backing LoanApplicationRepository.findQueuePage
+        @Index(name = "idx_loan_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_loan_status_created_id", columnList = "status, created_at, id")
+})
 @Data
 public class LoanApplication {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "loanapplication_id")
+    @TableGenerator(name = "loanapplication_id", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_val", pkColumnValue = "loanapplication", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -46,6 +52,11 @@ public class LoanApplication {
     @Column(name = "rejection_reason", length = 500)
     private String rejectionReason;
 
+    // Every transition is a read-check-write; the versioned UPDATE makes a concurrent one fail instead of overwriting
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     public enum LoanStatus {
        PENDING,
         VERIFIED,
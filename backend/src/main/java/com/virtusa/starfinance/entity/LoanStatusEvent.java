@@ -0,0 +1,48 @@
+package com.virtusa.starfinance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of one loan status transition. Rows are batch-inserted by LoanAuditLog after
+ * the owning transaction commits; {@code fromStatus} is null for the initial PENDING row.
+ */
+@Entity
+@Immutable
+@Table(name = "loan_status_event", indexes = {
+        // Per-loan history in transition order
+        @Index(name = "idx_loan_status_event_rid_time", columnList = "rid, occurred_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanStatusEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String rid;
+
+    @Column(nullable = false)
+    private String actor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 50)
+    private LoanApplication.LoanStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 50)
+    private LoanApplication.LoanStatus toStatus;
+
+    @Column(length = 500)
+    private String reason;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
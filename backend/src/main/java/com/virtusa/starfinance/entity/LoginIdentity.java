@@ -0,0 +1,69 @@
+package com.virtusa.starfinance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.io.Serializable;
+
+/**
+ * Read-only union of the customer and employee login columns, so resolving a login name is a
+ * single lookup instead of one probe per table. Each branch filters on its own unique index
+ * (customer.email, employee.username) once the predicate is pushed into the derived table.
+ * Employees come first ({@code precedence = 0}) when the same name exists in both tables.
+ */
+@Entity
+@Immutable
+@Subselect("""
+        SELECT 'EMPLOYEE' AS account_type, 0 AS precedence, e.id AS account_id, e.username AS login,
+               e.password AS password, CONCAT('ROLE_', e.role) AS authority, e.token_version AS token_version
+        FROM employee e
+        UNION ALL
+        SELECT 'CUSTOMER', 1, c.id, c.email, c.password, 'ROLE_CUSTOMER', c.token_version
+        FROM customer c
+        """)
+@Synchronize({"customer", "employee"})
+@IdClass(LoginIdentity.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginIdentity {
+
+    public enum AccountType { CUSTOMER, EMPLOYEE }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account_type")
+    private AccountType accountType;
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "precedence")
+    private int precedence;
+
+    @Column(name = "login")
+    private String login;
+
+    @Column(name = "password")
+    private String password;
+
+    @Column(name = "authority")
+    private String authority;
+
+    @Column(name = "token_version")
+    private int tokenVersion;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private AccountType accountType;
+        private Long accountId;
+    }
+}
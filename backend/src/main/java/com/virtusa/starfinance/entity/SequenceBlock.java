@@ -0,0 +1,28 @@
+package com.virtusa.starfinance.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * High-water mark of a block-allocated number sequence. Each node reserves a range by advancing
+ * {@code nextValue} in one UPDATE and then hands the numbers out from memory, so only one statement
+ * per block touches this table. Written with plain JDBC by KnNumberAllocator.
+ */
+@Entity
+@Table(name = "sequence_block")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SequenceBlock {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
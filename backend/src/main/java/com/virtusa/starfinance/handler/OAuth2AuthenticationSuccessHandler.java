@@ -1,6 +1,7 @@
 package com.virtusa.starfinance.handler;
 
 
+import com.virtusa.starfinance.entity.Customer;
 import com.virtusa.starfinance.service.JwtService;
 import com.virtusa.starfinance.service.OAuthUserService;
 import org.springframework.security.core.Authentication;
@@ -28,12 +29,12 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
                                         Authentication authentication) throws IOException {
         if (authentication.getPrincipal() instanceof OAuth2User oAuth2User) {
-            oAuthUserService.createOrGetCustomer(
+            Customer customer = oAuthUserService.createOrGetCustomer(
                     (OAuth2User) authentication.getPrincipal(),
                     oAuth2User.getAttribute("sub") != null ? oAuth2User.getAttribute("sub") : oAuth2User.getAttribute("id"),
                     authentication.getAuthorities().stream().map(Object::toString).collect(Collectors.joining(",")));
 
-            String jwt = jwtService.generateToken(authentication);
+            String jwt = jwtService.generateToken(authentication, customer.getId(), customer.getTokenVersion());
             response.sendRedirect("http://localhost:4200/login?token=" + jwt);
         } else {
             response.sendRedirect("http://localhost:4200/login?error=auth_failed");
@@ -1,17 +1,49 @@
 package com.virtusa.starfinance.repository;
 
+import com.virtusa.starfinance.dto.CustomerKycProfileView;
+import com.virtusa.starfinance.dto.CustomerKycStateView;
 import com.virtusa.starfinance.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
     Optional<Customer> findByEmail(String email);
     Optional<Customer> findByOauthIdAndOauthProvider(String oauthId, String provider);
 
     Optional<Customer> findByAadhaar(String aadhaar);
     Optional<Customer> findByPanCard(String panCard);
 
+    // KYC verification: the customer and any other owner of the Aadhaar or PAN in one round trip
+    @Query("SELECT new com.virtusa.starfinance.dto.CustomerKycProfileView(c.id, c.email, c.aadhaar, c.panCard, "
+            + "c.knNumber, c.kycStatus, c.kycVerified, c.name, c.dateOfBirth, c.gender, c.mobileNumber, "
+            + "c.passportNumber, c.fullAddress, c.city, c.state, c.pinCode, c.occupation, c.income, "
+            + "c.bankAccountNumber, c.ifscCode, c.existingLoans) "
+            + "FROM Customer c WHERE c.email = :email OR c.aadhaar = :aadhaar OR c.panCard = :panCard")
+    List<CustomerKycProfileView> findKycProfilesByEmailOrIdentity(@Param("email") String email,
+                                                                   @Param("aadhaar") String aadhaar,
+                                                                   @Param("panCard") String panCard);
+
+    @Query("SELECT c.tokenVersion FROM Customer c WHERE c.email = :email")
+    Optional<Integer> findTokenVersionByEmail(@Param("email") String email);
+
+    // Rehash of an unchanged password; deliberately leaves tokenVersion alone
+    @Transactional
+    @Modifying
+    @Query("UPDATE Customer c SET c.password = :password WHERE c.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("password") String password);
+
+    // One query per import batch instead of one customer load per row
+    @Query("SELECT new com.virtusa.starfinance.dto.CustomerKycStateView(c.id, c.email, c.kycVerified) "
+            + "FROM Customer c WHERE c.email IN :emails")
+    List<CustomerKycStateView> findKycStatesByEmailIn(@Param("emails") Collection<String> emails);
+
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.virtusa.starfinance.repository;
+
+import java.util.Map;
+
+/**
+ * Customer writes Spring Data cannot derive, implemented in CustomerRepositoryImpl.
+ */
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Sets only the given entity attributes of one customer with a single UPDATE, without loading or
+     * dirty-checking the entity. Attribute names are interpolated into JPQL, so they must come from code,
+     * never from request input.
+     * @param id The customer id.
+     * @param attributes Customer attribute name to new value; must not be empty.
+     * @return The number of rows updated (0 if the customer no longer exists).
+     */
+    int updateAttributes(Long id, Map<String, Object> attributes);
+}
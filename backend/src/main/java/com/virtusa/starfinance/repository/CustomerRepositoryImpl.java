@@ -0,0 +1,31 @@
+package com.virtusa.starfinance.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.StringJoiner;
+
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateAttributes(Long id, Map<String, Object> attributes) {
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("No attributes to update.");
+        }
+        StringJoiner assignments = new StringJoiner(", ");
+        for (String attribute : attributes.keySet()) {
+            assignments.add("c." + attribute + " = :" + attribute);
+        }
+        Query update = entityManager.createQuery("UPDATE Customer c SET " + assignments + " WHERE c.id = :id");
+        attributes.forEach(update::setParameter);
+        update.setParameter("id", id);
+        return update.executeUpdate();
+    }
+}
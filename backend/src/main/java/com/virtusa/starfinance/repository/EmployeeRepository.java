@@ -2,11 +2,24 @@ package com.virtusa.starfinance.repository;
 
 import com.virtusa.starfinance.entity.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Optional<Employee> findByUsername(String username);
+
+    @Query("SELECT e.tokenVersion FROM Employee e WHERE e.username = :username")
+    Optional<Integer> findTokenVersionByUsername(@Param("username") String username);
+
+    // Rehash of an unchanged password; deliberately leaves tokenVersion alone
+    @Transactional
+    @Modifying
+    @Query("UPDATE Employee e SET e.password = :password WHERE e.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("password") String password);
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.virtusa.starfinance.repository;
+
+import com.virtusa.starfinance.dto.GoldRateTickView;
+import com.virtusa.starfinance.entity.GoldRateHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GoldRateHistoryRepository extends JpaRepository<GoldRateHistory, Long> {
+
+    /**
+     * Most recent ticks of a karat, newest first; used to seed the in-memory window.
+     */
+    @Query("""
+            SELECT new com.virtusa.starfinance.dto.GoldRateTickView(h.id, h.recordedAt, h.ratePerGram)
+            FROM GoldRateHistory h
+            WHERE h.karatLabel = :karat
+            ORDER BY h.recordedAt DESC, h.id DESC
+            """)
+    List<GoldRateTickView> findLatestTicks(@Param("karat") String karat, Pageable pageable);
+
+    /**
+     * Keyset chunk of a karat's ticks in [from, to), oldest first.
+     * The (cursorRecordedAt, cursorId) position is exclusive; pass nulls for the first chunk.
+     */
+    @Query("""
+            SELECT new com.virtusa.starfinance.dto.GoldRateTickView(h.id, h.recordedAt, h.ratePerGram)
+            FROM GoldRateHistory h
+            WHERE h.karatLabel = :karat
+              AND h.recordedAt >= :from
+              AND h.recordedAt < :to
+              AND (:cursorRecordedAt IS NULL
+                   OR h.recordedAt > :cursorRecordedAt
+                   OR (h.recordedAt = :cursorRecordedAt AND h.id > :cursorId))
+            ORDER BY h.recordedAt ASC, h.id ASC
+            """)
+    List<GoldRateTickView> findTicks(@Param("karat") String karat,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("cursorRecordedAt") LocalDateTime cursorRecordedAt,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+}
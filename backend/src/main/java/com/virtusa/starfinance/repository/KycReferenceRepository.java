@@ -1,9 +1,15 @@
 package com.virtusa.starfinance.repository;
 
+import com.virtusa.starfinance.dto.KycReferenceKeyView;
 import com.virtusa.starfinance.entity.KycReference;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -31,4 +37,25 @@ public interface KycReferenceRepository extends JpaRepository<KycReference, Long
      * @return An Optional containing the KycReference if both match.
      */
     Optional<KycReference> findByAadhaarNumberAndPanNumber(String aadhaarNumber, String panNumber);
-}
\ No newline at end of file
+
+    /**
+     * Keyset page of reference keys with id above {@code afterId}, in id order. Loads and refreshes
+     * the in-memory KYC index without materialising entities.
+     * @param afterId The last id already seen (0 to start from the beginning).
+     * @param page Only the page size is used; callers pass PageRequest.of(0, size).
+     * @return Up to page-size keys.
+     */
+    @Query("SELECT new com.virtusa.starfinance.dto.KycReferenceKeyView(k.id, k.aadhaarNumber, k.panNumber) "
+            + "FROM KycReference k WHERE k.id > :afterId ORDER BY k.id")
+    List<KycReferenceKeyView> findKeysAfter(@Param("afterId") long afterId, Pageable page);
+
+    /**
+     * Current holders of the given PAN numbers. Used by the bulk reference load to reject rows whose
+     * PAN already belongs to a different Aadhaar before upserting.
+     * @param panNumbers The PAN numbers of one load batch.
+     * @return The keys of the rows holding any of them.
+     */
+    @Query("SELECT new com.virtusa.starfinance.dto.KycReferenceKeyView(k.id, k.aadhaarNumber, k.panNumber) "
+            + "FROM KycReference k WHERE k.panNumber IN :panNumbers")
+    List<KycReferenceKeyView> findKeysByPanNumberIn(@Param("panNumbers") Collection<String> panNumbers);
+}
@@ -1,7 +1,16 @@
 package com.virtusa.starfinance.repository;// LoanApplicationRepository.java (Add this to your repository)
 // V:\Virtusa Capstone Project\starfinance\src\main\java\com\virtusa\starfinance\repository\LoanApplicationRepository.java
+import com.virtusa.starfinance.dto.LoanDetailsView;
+import com.virtusa.starfinance.dto.LoanStatusTransitionView;
+import com.virtusa.starfinance.dto.LoanSummaryView;
 import com.virtusa.starfinance.entity.LoanApplication;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +19,89 @@ public interface LoanApplicationRepository extends JpaRepository<LoanApplication
     List<LoanApplication> findByCustomerId(Long customerId);
     Optional<LoanApplication> findByRid(String rid);
 
-}
\ No newline at end of file
+    @Query("SELECT l.status FROM LoanApplication l WHERE l.rid = :rid")
+    Optional<LoanApplication.LoanStatus> findStatusByRid(@Param("rid") String rid);
+
+    /**
+     * Current status and version of many loans in one IN query, for bulk transitions.
+     */
+    @Query("""
+            SELECT new com.virtusa.starfinance.dto.LoanStatusTransitionView(l.id, l.rid, l.status, l.version)
+            FROM LoanApplication l
+            WHERE l.rid IN :rids
+            """)
+    List<LoanStatusTransitionView> findTransitionViewsByRidIn(@Param("rids") Collection<String> rids);
+
+    /**
+     * Same columns by id, to check which versioned UPDATEs of a batch applied when the driver reported no counts.
+     */
+    @Query("""
+            SELECT new com.virtusa.starfinance.dto.LoanStatusTransitionView(l.id, l.rid, l.status, l.version)
+            FROM LoanApplication l
+            WHERE l.id IN :ids
+            """)
+    List<LoanStatusTransitionView> findTransitionViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT l.rid FROM LoanApplication l WHERE l.rid IN :rids")
+    List<String> findExistingRids(@Param("rids") Collection<String> rids);
+
+    /**
+     * Customer loan list as flat rows: one statement, no lazy customer/asset loads per loan.
+     */
+    @Query("""
+            SELECT new com.virtusa.starfinance.dto.LoanSummaryView(
+                l.id, l.rid, l.status, l.createdAt, l.finalValue, l.rejectionReason, c.name, c.knNumber, a.type)
+            FROM LoanApplication l JOIN l.customer c JOIN l.asset a
+            WHERE c.id = :customerId
+            """)
+    List<LoanSummaryView> findSummariesByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Every loan as flat rows for the legacy employee dashboard list.
+     */
+    @Query("""
+            SELECT new com.virtusa.starfinance.dto.LoanSummaryView(
+                l.id, l.rid, l.status, l.createdAt, l.finalValue, l.rejectionReason, c.name, c.knNumber, a.type)
+            FROM LoanApplication l JOIN l.customer c JOIN l.asset a
+            """)
+    List<LoanSummaryView> findAllSummaries();
+
+    /**
+     * Loan detail view joined with its customer and asset in a single statement.
+     */
+    @Query("""
+            SELECT new com.virtusa.starfinance.dto.LoanDetailsView(
+                l.rid, l.status, l.createdAt, l.amount, l.rejectionReason,
+                c.name, c.knNumber, c.mobileNumber, c.email, c.bankAccountNumber, c.ifscCode,
+                a.type, a.weight)
+            FROM LoanApplication l JOIN l.customer c JOIN l.asset a
+            WHERE l.rid = :rid
+            """)
+    Optional<LoanDetailsView> findDetailsByRid(@Param("rid") String rid);
+
+    /**
+     * Keyset page of the employee loan queue, newest first.
+     * The (createdAt, id) cursor is exclusive, so each page seeks straight into
+     * idx_loan_created_id / idx_loan_status_created_id instead of scanning an OFFSET.
+     * Null filters are folded away by the driver (client-side prepared statements),
+     * leaving MySQL a plain range predicate on the matching composite index.
+     */
+    @Query("""
+            SELECT new com.virtusa.starfinance.dto.LoanSummaryView(
+                l.id, l.rid, l.status, l.createdAt, l.finalValue, l.rejectionReason, c.name, c.knNumber, a.type)
+            FROM LoanApplication l JOIN l.customer c JOIN l.asset a
+            WHERE (:status IS NULL OR l.status = :status)
+              AND (:createdFrom IS NULL OR l.createdAt >= :createdFrom)
+              AND (:createdTo IS NULL OR l.createdAt < :createdTo)
+              AND (:cursorCreatedAt IS NULL
+                   OR l.createdAt < :cursorCreatedAt
+                   OR (l.createdAt = :cursorCreatedAt AND l.id < :cursorId))
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    List<LoanSummaryView> findQueuePage(@Param("status") LoanApplication.LoanStatus status,
+                                        @Param("createdFrom") LocalDateTime createdFrom,
+                                        @Param("createdTo") LocalDateTime createdTo,
+                                        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+}
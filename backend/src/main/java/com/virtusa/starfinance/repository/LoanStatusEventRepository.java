@@ -0,0 +1,13 @@
+package com.virtusa.starfinance.repository;
+
+import com.virtusa.starfinance.entity.LoanStatusEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LoanStatusEventRepository extends JpaRepository<LoanStatusEvent, Long> {
+
+    List<LoanStatusEvent> findByRidOrderByOccurredAtAscIdAsc(String rid);
+}
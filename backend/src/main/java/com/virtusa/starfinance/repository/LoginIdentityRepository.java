@@ -0,0 +1,14 @@
+package com.virtusa.starfinance.repository;
+
+import com.virtusa.starfinance.entity.LoginIdentity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LoginIdentityRepository extends JpaRepository<LoginIdentity, LoginIdentity.Key> {
+
+    // One statement per login; employees win a name clash, matching the customer portal's rejection rule
+    Optional<LoginIdentity> findFirstByLoginOrderByPrecedenceAsc(String login);
+}
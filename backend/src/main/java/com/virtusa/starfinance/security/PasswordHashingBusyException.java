@@ -0,0 +1,11 @@
+package com.virtusa.starfinance.security;
+
+/**
+ * Thrown when the password hashing queue is full; mapped to 429 Too Many Requests.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Too many concurrent sign-in requests. Please retry shortly.");
+    }
+}
@@ -0,0 +1,89 @@
+package com.virtusa.starfinance.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Encodes with one configured target (BCrypt cost or Argon2id memory/iterations/parallelism) while
+ * still verifying every hash format we have stored. Both formats carry their own parameters, so
+ * existing unprefixed BCrypt hashes need no migration. {@link #upgradeEncoding} reports any hash
+ * whose algorithm or parameters differ from the target, in either direction, so Spring Security's
+ * DaoAuthenticationProvider rehashes it on the next successful login.
+ */
+public class TunablePasswordEncoder implements PasswordEncoder {
+
+    public enum Algorithm { BCRYPT, ARGON2 }
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$[./A-Za-z0-9]{53}$");
+    private static final Pattern ARGON2_HASH = Pattern.compile("^\\$argon2id\\$v=\\d+\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$.+");
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    private final Algorithm target;
+    private final int bcryptStrength;
+    private final int argon2MemoryKib;
+    private final int argon2Iterations;
+    private final int argon2Parallelism;
+    private final BCryptPasswordEncoder bcrypt;
+    private final Argon2PasswordEncoder argon2;
+
+    public TunablePasswordEncoder(Algorithm target, int bcryptStrength,
+                                  int argon2MemoryKib, int argon2Iterations, int argon2Parallelism) {
+        this.target = target;
+        this.bcryptStrength = bcryptStrength;
+        this.argon2MemoryKib = argon2MemoryKib;
+        this.argon2Iterations = argon2Iterations;
+        this.argon2Parallelism = argon2Parallelism;
+        this.bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        this.argon2 = new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                argon2Parallelism, argon2MemoryKib, argon2Iterations);
+    }
+
+    public static TunablePasswordEncoder bcrypt(int strength) {
+        return new TunablePasswordEncoder(Algorithm.BCRYPT, strength, 19_456, 2, 1);
+    }
+
+    public static TunablePasswordEncoder argon2(int memoryKib, int iterations, int parallelism) {
+        return new TunablePasswordEncoder(Algorithm.ARGON2, 10, memoryKib, iterations, parallelism);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return target == Algorithm.ARGON2 ? argon2.encode(rawPassword) : bcrypt.encode(rawPassword);
+    }
+
+    // Both encoders read cost and salt from the stored hash, so any past setting still verifies
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false; // OAuth-only accounts have no password
+        }
+        if (encodedPassword.startsWith("$argon2")) {
+            return argon2.matches(rawPassword, encodedPassword);
+        }
+        return bcrypt.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher bcryptHash = BCRYPT_HASH.matcher(encodedPassword);
+        if (bcryptHash.matches()) {
+            return target != Algorithm.BCRYPT || Integer.parseInt(bcryptHash.group(1)) != bcryptStrength;
+        }
+        Matcher argon2Hash = ARGON2_HASH.matcher(encodedPassword);
+        if (argon2Hash.matches()) {
+            return target != Algorithm.ARGON2
+                    || Integer.parseInt(argon2Hash.group(1)) != argon2MemoryKib
+                    || Integer.parseInt(argon2Hash.group(2)) != argon2Iterations
+                    || Integer.parseInt(argon2Hash.group(3)) != argon2Parallelism;
+        }
+        return false; // Unknown format: leave it alone rather than loop on rehashing
+    }
+}
@@ -7,6 +7,7 @@ import com.virtusa.starfinance.entity.Employee;
 import com.virtusa.starfinance.repository.CustomerRepository;
 import com.virtusa.starfinance.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,14 @@ public class AuthService {
     private final CustomerRepository customerRepository;
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Published when an account's credentials change (password change/reset, new account).
+     * Previously issued JWTs stop being accepted and cached UserDetails are dropped.
+     */
+    public record CredentialsChangedEvent(String username) {
+    }
 
     /**
      * Resets the customer's password after verifying email and date of birth.
@@ -38,7 +47,9 @@ public class AuthService {
 
         // 2. Update Password
         customer.setPassword(passwordEncoder.encode(newPassword));
+        customer.setTokenVersion(customer.getTokenVersion() + 1);
         customerRepository.save(customer);
+        eventPublisher.publishEvent(new CredentialsChangedEvent(customer.getEmail()));
     }
 
     /**
@@ -55,7 +66,9 @@ public class AuthService {
 
         // 2. Update Password
         employee.setPassword(passwordEncoder.encode(newPassword));
+        employee.setTokenVersion(employee.getTokenVersion() + 1);
         employeeRepository.save(employee);
+        eventPublisher.publishEvent(new CredentialsChangedEvent(employee.getUsername()));
     }
 
     @Transactional
@@ -70,7 +83,9 @@ public class AuthService {
 
         // 2. Update Password
         customer.setPassword(passwordEncoder.encode(newPassword));
+        customer.setTokenVersion(customer.getTokenVersion() + 1);
         customerRepository.save(customer);
+        eventPublisher.publishEvent(new CredentialsChangedEvent(customer.getEmail()));
     }
 
     /**
@@ -88,6 +103,8 @@ public class AuthService {
 
         // 2. Update Password
         employee.setPassword(passwordEncoder.encode(newPassword));
+        employee.setTokenVersion(employee.getTokenVersion() + 1);
         employeeRepository.save(employee);
+        eventPublisher.publishEvent(new CredentialsChangedEvent(employee.getUsername()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.virtusa.starfinance.service;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * UserDetails that also carries the account's database id and token version,
+ * so a successful login can embed both in the issued JWT.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Long userId;
+    private final int tokenVersion;
+
+    public AuthenticatedUser(String username, String password, Collection<? extends GrantedAuthority> authorities,
+                             Long userId, int tokenVersion) {
+        super(username, password, authorities);
+        this.userId = userId;
+        this.tokenVersion = tokenVersion;
+    }
+
+    /**
+     * Bank staff and admins carry a ROLE_BANK_* authority; everyone else is a customer.
+     */
+    public boolean isEmployee() {
+        return getAuthorities().stream().anyMatch(a -> a.getAuthority().startsWith("ROLE_BANK_"));
+    }
+
+    /**
+     * Fresh instance with the same data. Authentication erases the password of the UserDetails it
+     * was given, so cached instances must never be handed out directly.
+     */
+    public AuthenticatedUser copy() {
+        return new AuthenticatedUser(getUsername(), getPassword(), getAuthorities(), userId, tokenVersion);
+    }
+}
@@ -1,31 +1,271 @@
 package com.virtusa.starfinance.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtusa.starfinance.dto.GoldRateHistoryResponse;
 import com.virtusa.starfinance.dto.GoldRateResponse;
+import com.virtusa.starfinance.dto.GoldRateTickView;
 import com.virtusa.starfinance.entity.GoldRate;
+import com.virtusa.starfinance.entity.GoldRateChangeListener;
+import com.virtusa.starfinance.entity.GoldRateHistory;
+import com.virtusa.starfinance.repository.GoldRateHistoryRepository;
 import com.virtusa.starfinance.repository.GoldRateRepository;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class BullionService {
 
+    private static final int HISTORY_DEFAULT_POINTS = 300;
+    private static final int HISTORY_MAX_POINTS = 2000;
+    private static final int HISTORY_DEFAULT_DAYS = 30;
+    private static final int HISTORY_DB_CHUNK_SIZE = 5000;
+
     private final GoldRateRepository goldRateRepository;
+    private final GoldRateHistoryRepository goldRateHistoryRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int historyWindowSize;
+
+    // Immutable snapshot swapped atomically; readers never touch MySQL
+    private final AtomicReference<RateSnapshot> snapshot = new AtomicReference<>();
+
+    // Recent ticks per karat label; older ranges fall back to gold_rate_history
+    private final Map<String, RateTickWindow> historyWindows = new ConcurrentHashMap<>();
+
+    public BullionService(GoldRateRepository goldRateRepository,
+                          GoldRateHistoryRepository goldRateHistoryRepository,
+                          ObjectMapper objectMapper,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${bullion.history.window-size:10000}") int historyWindowSize) {
+        this.goldRateRepository = goldRateRepository;
+        this.goldRateHistoryRepository = goldRateHistoryRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.historyWindowSize = historyWindowSize;
+    }
+
+    /**
+     * Immutable view of the current gold rates, pre-encoded for the HTTP layer.
+     * The byte arrays are shared by every request and must never be modified.
+     *
+     * @param rates    rates in the order returned by the repository
+     * @param json     UTF-8 JSON encoding of rates
+     * @param gzipJson gzip-compressed copy of json
+     * @param etag     quoted strong ETag of the identity (json) representation
+     * @param gzipEtag quoted strong ETag of the gzip representation
+     */
+    public record RateSnapshot(List<GoldRateResponse> rates, byte[] json, byte[] gzipJson,
+                               String etag, String gzipEtag) {
+    }
+
+    /**
+     * Published after a new snapshot replaces the previous one (i.e. only on real rate changes).
+     */
+    public record RateSnapshotUpdatedEvent(RateSnapshot snapshot) {
+    }
 
     public List<GoldRateResponse> getAllRates() {
-        // 1. Fetch all data from the database
-        List<GoldRate> entities = goldRateRepository.findAll();
-
-        // 2. Map GoldRate entities to GoldRateResponse DTOs
-        return entities.stream()
-                .map(entity -> new GoldRateResponse(
-                        entity.getKaratLabel(),
-                        // Convert BigDecimal to Double for the DTO (required by Angular frontend)
-                        entity.getRatePerGram().doubleValue()
-                ))
-                .toList();
-    }
-}
\ No newline at end of file
+        return getSnapshot().rates();
+    }
+
+    /**
+     * Returns the cached snapshot, loading it on first use.
+     */
+    public RateSnapshot getSnapshot() {
+        RateSnapshot current = snapshot.get();
+        return current != null ? current : refreshRates();
+    }
+
+    /**
+     * Reloads rates from the database. Runs on a fixed delay as a safety net for writes made
+     * outside JPA (e.g. raw SQL); JPA writes trigger it immediately via onGoldRateChanged.
+     * JSON and gzip payloads are only re-encoded here, and the snapshot reference only changes
+     * when the payload does, so the ETag handed to clients stays valid across no-op refreshes.
+     * Each karat whose rate moved is appended to gold_rate_history and its in-memory window.
+     */
+    @Scheduled(fixedDelayString = "${bullion.rates.refresh-interval-ms:30000}")
+    public RateSnapshot refreshRates() {
+        while (true) {
+            // Taken before the read, so a refresh that swaps in a snapshot meanwhile makes the CAS below fail
+            RateSnapshot previous = snapshot.get();
+
+            // 1. Fetch all data from the database
+            List<GoldRate> entities = goldRateRepository.findAll();
+
+            // 2. Map GoldRate entities to GoldRateResponse DTOs
+            List<GoldRateResponse> rates = entities.stream()
+                    .map(entity -> new GoldRateResponse(
+                            entity.getKaratLabel(),
+                            // Convert BigDecimal to Double for the DTO (required by Angular frontend)
+                            entity.getRatePerGram().doubleValue()
+                    ))
+                    .toList();
+
+            // 3. Encode once; every request reuses these bytes
+            byte[] json = toJson(rates);
+            String digest = DigestUtils.md5DigestAsHex(json);
+            String etag = "\"" + digest + "\"";
+            if (previous != null && previous.etag().equals(etag)) {
+                return previous;
+            }
+
+            RateSnapshot fresh = new RateSnapshot(rates, json, gzip(json), etag, "\"" + digest + "-gzip\"");
+            if (snapshot.compareAndSet(previous, fresh)) {
+                recordHistory(entities);
+                log.debug("Gold rate snapshot refreshed: etag={}, rates={}, bytes={}", fresh.etag(), rates.size(), json.length);
+                if (previous != null) {
+                    eventPublisher.publishEvent(new RateSnapshotUpdatedEvent(fresh));
+                }
+                return fresh;
+            }
+            // Lost to a concurrent refresh whose rows may be older or newer than ours: read again
+            // against its snapshot, so the last refresh to finish always reflects the latest commit
+        }
+    }
+
+    /**
+     * Change-driven refresh: runs once the transaction that wrote gold_rates has committed.
+     * The committed transaction is still bound to the thread here, so the history insert
+     * needs a fresh one of its own.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onGoldRateChanged(GoldRateChangeListener.GoldRateChangedEvent event) {
+        refreshRates();
+    }
+
+    /**
+     * Downsampled rate history of one karat over [from, to): at most {@code points} buckets,
+     * each with the min/max/avg of the ticks inside it. Served from the in-memory window when
+     * it reaches back to {@code from}, otherwise streamed from gold_rate_history in keyset chunks.
+     * Defaults to the last 30 days and 300 points.
+     */
+    public GoldRateHistoryResponse getRateHistory(String karat, LocalDateTime from, LocalDateTime to, Integer points) {
+        if (karat == null || karat.isBlank()) {
+            throw new IllegalArgumentException("Karat is required");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(HISTORY_DEFAULT_DAYS);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        int maxPoints = points == null ? HISTORY_DEFAULT_POINTS : Math.clamp(points, 1, HISTORY_MAX_POINTS);
+
+        long startMillis = RateDownsampler.toEpochMillis(start);
+        long endMillis = RateDownsampler.toEpochMillis(end);
+        RateDownsampler downsampler = new RateDownsampler(startMillis, endMillis, maxPoints);
+        RateTickWindow window = historyWindows.get(karat);
+        if (window != null && window.covers(startMillis)) {
+            window.scan(startMillis, endMillis, downsampler);
+        } else {
+            scanHistoryTable(karat, start, end, downsampler);
+        }
+        return new GoldRateHistoryResponse(karat, start, end, downsampler.bucketSeconds(), downsampler.toPoints());
+    }
+
+    private void scanHistoryTable(String karat, LocalDateTime from, LocalDateTime to, RateDownsampler downsampler) {
+        LocalDateTime cursorRecordedAt = null;
+        Long cursorId = null;
+        List<GoldRateTickView> chunk;
+        do {
+            chunk = goldRateHistoryRepository.findTicks(karat, from, to, cursorRecordedAt, cursorId,
+                    PageRequest.of(0, HISTORY_DB_CHUNK_SIZE));
+            for (GoldRateTickView tick : chunk) {
+                downsampler.accept(RateDownsampler.toEpochMillis(tick.recordedAt()), tick.ratePerGram().doubleValue());
+            }
+            if (!chunk.isEmpty()) {
+                GoldRateTickView last = chunk.get(chunk.size() - 1);
+                cursorRecordedAt = last.recordedAt();
+                cursorId = last.id();
+            }
+        } while (chunk.size() == HISTORY_DB_CHUNK_SIZE);
+    }
+
+    /**
+     * Appends a tick for every karat whose rate differs from its last recorded one. Comparing
+     * against the window (seeded from the table) rather than the previous snapshot keeps restarts
+     * from writing duplicate ticks. History is best-effort: a failed write never blocks serving rates.
+     */
+    private synchronized void recordHistory(List<GoldRate> entities) {
+        try {
+            LocalDateTime recordedAt = LocalDateTime.now();
+            List<GoldRateHistory> ticks = new ArrayList<>();
+            for (GoldRate entity : entities) {
+                RateTickWindow window = historyWindows.get(entity.getKaratLabel());
+                if (window == null) {
+                    window = seedHistoryWindow(entity.getKaratLabel());
+                    historyWindows.put(entity.getKaratLabel(), window);
+                }
+                if (window.isEmpty() || window.lastRate() != entity.getRatePerGram().doubleValue()) {
+                    ticks.add(new GoldRateHistory(null, entity.getKaratLabel(), entity.getRatePerGram(), recordedAt));
+                }
+            }
+            if (ticks.isEmpty()) {
+                return;
+            }
+            goldRateHistoryRepository.saveAll(ticks);
+            long timestamp = RateDownsampler.toEpochMillis(recordedAt);
+            for (GoldRateHistory tick : ticks) {
+                historyWindows.get(tick.getKaratLabel()).append(timestamp, tick.getRatePerGram().doubleValue());
+            }
+            log.debug("Recorded {} gold rate history ticks at {}", ticks.size(), recordedAt);
+        } catch (DataAccessException e) {
+            log.warn("Failed to record gold rate history: {}", e.getMessage());
+        }
+    }
+
+    private RateTickWindow seedHistoryWindow(String karat) {
+        RateTickWindow window = new RateTickWindow(historyWindowSize);
+        List<GoldRateTickView> latest = goldRateHistoryRepository.findLatestTicks(karat,
+                PageRequest.of(0, historyWindowSize + 1));
+        if (latest.size() > historyWindowSize) {
+            window.markTruncated();
+            latest = latest.subList(0, historyWindowSize);
+        }
+        for (int i = latest.size() - 1; i >= 0; i--) {
+            GoldRateTickView tick = latest.get(i);
+            window.append(RateDownsampler.toEpochMillis(tick.recordedAt()), tick.ratePerGram().doubleValue());
+        }
+        return window;
+    }
+
+    private byte[] toJson(List<GoldRateResponse> rates) {
+        try {
+            return objectMapper.writeValueAsBytes(rates);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize gold rates", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to gzip gold rates", e);
+        }
+        return buffer.toByteArray();
+    }
+}
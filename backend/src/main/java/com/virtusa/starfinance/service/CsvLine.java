@@ -0,0 +1,45 @@
+package com.virtusa.starfinance.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a single CSV line for the bulk loaders (LoanImportService, KycReferenceImportService). Quoted
+ * fields cannot span lines, as both read their input one line at a time.
+ */
+final class CsvLine {
+
+    private CsvLine() {
+    }
+
+    /**
+     * RFC 4180 fields on one line: commas inside double quotes, "" for a literal quote.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,183 @@
+package com.virtusa.starfinance.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single shared fan-out for /api/bullion/rates/stream.
+ * <p>
+ * Each frame is built once per rate change and handed to every subscriber. Sends run on
+ * virtual threads so a blocked socket never stalls the broadcaster. While a send is in
+ * flight, each subscriber keeps only the latest frame pending (it only ever needs the latest
+ * snapshot), sent as soon as the socket frees up. A frame arriving while an earlier one is still
+ * pending counts as missed, and after {@code maxMissedFrames} consecutive misses the subscriber
+ * is evicted as a slow consumer.
+ */
+@Slf4j
+@Service
+public class GoldRateBroadcaster {
+
+    static final String RATES_EVENT = "rates";
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT_FRAME =
+            SseEmitter.event().comment("heartbeat").build();
+
+    private final BullionService bullionService;
+    private final long emitterTimeoutMs;
+    private final int maxSubscribers;
+    private final int maxMissedFrames;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public GoldRateBroadcaster(BullionService bullionService,
+                               @Value("${bullion.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+                               @Value("${bullion.stream.max-subscribers:10000}") int maxSubscribers,
+                               @Value("${bullion.stream.max-missed-frames:3}") int maxMissedFrames) {
+        this.bullionService = bullionService;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.maxMissedFrames = maxMissedFrames;
+    }
+
+    /**
+     * Opens a new stream and immediately queues the current snapshot, unless the client
+     * reconnected with a Last-Event-ID that already matches it.
+     *
+     * @throws IllegalStateException if the subscriber limit has been reached
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Gold rate stream is at capacity. Please poll /api/bullion/rates.");
+        }
+
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        BullionService.RateSnapshot snapshot = bullionService.getSnapshot();
+        if (!eventId(snapshot).equals(lastEventId)) {
+            deliver(subscriber, ratesFrame(snapshot));
+        }
+    }
+
+    @EventListener
+    public void onSnapshotUpdated(BullionService.RateSnapshotUpdatedEvent event) {
+        broadcast(ratesFrame(event.snapshot()));
+    }
+
+    @Scheduled(fixedRateString = "${bullion.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeat() {
+        broadcast(HEARTBEAT_FRAME);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> sendExecutor.execute(subscriber.emitter::complete));
+        subscribers.clear();
+        sendExecutor.shutdown();
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        for (Subscriber subscriber : subscribers) {
+            deliver(subscriber, frame);
+        }
+    }
+
+    private void deliver(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        // A heartbeat never displaces a pending rates frame; any pending frame keeps the stream alive
+        Set<ResponseBodyEmitter.DataWithMediaType> undelivered = frame == HEARTBEAT_FRAME
+                ? subscriber.pending.compareAndExchange(null, frame)
+                : subscriber.pending.getAndSet(frame);
+        if (undelivered != null && subscriber.missedFrames.incrementAndGet() >= maxMissedFrames) {
+            evict(subscriber);
+            return;
+        }
+        drain(subscriber);
+    }
+
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            // The in-flight send picks up the pending frame when it finishes
+            return;
+        }
+        sendExecutor.execute(() -> {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (subscribers.contains(subscriber) && (frame = subscriber.pending.getAndSet(null)) != null) {
+                    subscriber.missedFrames.set(0);
+                    subscriber.emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                subscribers.remove(subscriber);
+            } finally {
+                subscriber.sending.set(false);
+            }
+            // A frame queued after the last check above found sending still set
+            if (subscriber.pending.get() != null && subscribers.contains(subscriber)) {
+                drain(subscriber);
+            }
+        });
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("Evicting slow gold rate stream consumer after {} missed frames", subscriber.missedFrames.get());
+            // complete() waits on the emitter's write lock, which the stuck send still holds
+            sendExecutor.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> ratesFrame(BullionService.RateSnapshot snapshot) {
+        // Reuses the snapshot's pre-encoded JSON; the event id lets reconnecting clients skip a duplicate
+        return SseEmitter.event()
+                .name(RATES_EVENT)
+                .id(eventId(snapshot))
+                .data(snapshot.json(), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private static String eventId(BullionService.RateSnapshot snapshot) {
+        return snapshot.etag().replace("\"", "");
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Latest frame not yet handed to the socket; a newer one replaces it
+        private final AtomicReference<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new AtomicReference<>();
+        private final AtomicInteger missedFrames = new AtomicInteger();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -1,52 +1,62 @@
 package com.virtusa.starfinance.service;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, TokenVersionService tokenVersionService) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        logger.info("JWT Filter: Received auth header: {}");  // Add logger import if needed
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
-            logger.info("JWT Filter: Attempting validation for token starting with: {}");
-            if (jwtService.validateToken(jwt)) {
-                String username = jwtService.getUsernameFromToken(jwt);
-                logger.info("JWT Filter: Token valid for user: {}");
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                logger.info("JWT Filter: Authentication set for user: {} with authorities: {}");
+            Optional<Claims> claims = jwtService.parseVerifiedClaims(jwt);
+            if (claims.isPresent()) {
+                String username = claims.get().getSubject();
+                // Principal comes straight from the verified claims; no UserDetailsService round trip
+                List<GrantedAuthority> authorities = jwtService.getAuthorities(claims.get());
+                boolean employee = authorities.stream().anyMatch(a -> a.getAuthority().startsWith("ROLE_BANK_"));
+                if (tokenVersionService.isCurrent(username, employee, jwtService.getTokenVersion(claims.get()))) {
+                    JwtPrincipal principal = new JwtPrincipal(username, jwtService.getUserId(claims.get()));
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            principal, null, authorities);
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("JWT Filter: Authentication set for user: " + username + " with authorities: " + authorities);
+                    }
+                } else {
+                    logger.warn("JWT Filter: Token has been revoked");
+                }
             } else {
                 logger.warn("JWT Filter: Token validation failed");
             }
         } else {
-            logger.warn("JWT Filter: No valid Bearer token found");
+            // Anonymous requests to public endpoints are routine, not worth a line each
+            logger.debug("JWT Filter: No valid Bearer token found");
         }
 
         filterChain.doFilter(request, response);
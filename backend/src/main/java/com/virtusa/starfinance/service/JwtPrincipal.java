@@ -0,0 +1,18 @@
+package com.virtusa.starfinance.service;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal rebuilt from verified JWT claims alone; no database lookup involved.
+ * Authentication.getName() resolves to the username (customer email or employee username).
+ *
+ * @param username token subject
+ * @param userId   customer or employee id, null for tokens issued before the claim existed
+ */
+public record JwtPrincipal(String username, Long userId) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,18 +1,32 @@
 package com.virtusa.starfinance.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,45 +34,142 @@ public class JwtService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
+    private static final String CLAIM_AUTHORITIES = "authorities";
+    private static final String CLAIM_USER_ID = "userId";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of a token -> its verified claims, dropped when the token itself expires
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build(); // HS256 inferred from generation
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return generateToken(authentication, user.getUserId(), user.getTokenVersion());
+        }
+        return generateToken(authentication, null, 0);
+    }
+
+    /**
+     * Issues a token whose claims are enough to rebuild the principal without a database hit:
+     * subject, authorities, user id and the account's token version (for revocation).
+     */
+    public String generateToken(Authentication authentication, Long userId, int tokenVersion) {
         String authorities = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
         return Jwts.builder()
                 .setSubject(authentication.getName())
-                .claim("authorities", authorities)
+                .claim(CLAIM_AUTHORITIES, authorities)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims, or empty if the signature, format or
+     * expiry check fails. Recently verified tokens are answered from an in-memory cache keyed
+     * by the token's SHA-256, so repeat requests skip the HMAC check until the token expires.
+     * Failures are never cached.
+     */
+    public Optional<Claims> parseVerifiedClaims(String token) {
+        String tokenHash = sha256(token);
+        Claims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(tokenHash, claims);
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("JWT validation failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        String authorities = claims.get(CLAIM_AUTHORITIES, String.class);
+        return authorities == null ? List.of() : AuthorityUtils.commaSeparatedStringToAuthorityList(authorities);
+    }
+
+    public Long getUserId(Claims claims) {
+        return claims.get(CLAIM_USER_ID, Long.class);
+    }
+
+    /**
+     * Token version the token was issued with; tokens predating the claim count as version 0.
+     */
+    public int getTokenVersion(Claims claims) {
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return version == null ? 0 : version;
+    }
+
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()  // HS256 inferred from generation
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parseVerifiedClaims(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid JWT"));
     }
 
     public boolean validateToken(String token) {
+        return parseVerifiedClaims(token).isPresent();
+    }
+
+    private static String sha256(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            logger.error("JWT validation failed for token: {}", token.substring(0, 20) + "...", e);
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Keeps each cache entry exactly as long as the token it was verified from is valid.
+     */
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiresAt = claims.getExpiration();
+            if (expiresAt == null) {
+                return 0; // Never trust a token without exp beyond the request that verified it
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
-}
\ No newline at end of file
+}
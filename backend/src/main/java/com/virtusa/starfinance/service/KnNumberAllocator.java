@@ -0,0 +1,209 @@
+package com.virtusa.starfinance.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Issues customer KN numbers ({@code KN} + 12-digit serial + Luhn check digit) from blocks of the
+ * "KN" row in sequence_block. A block is reserved with one committed UPDATE and then handed out
+ * lock-free from an AtomicLong, so only one KYC verification in {@code kyc.kn.block-size} touches
+ * the database for its number. Every node reserves disjoint ranges, so numbers never collide;
+ * numbers left in a block when the node stops are skipped, leaving gaps but no duplicates.
+ * <p>
+ * Reservations run on a single background thread: the first block at startup, and the next one
+ * once the current block is 80% used. Callers are already inside the verification transaction
+ * with a pooled connection checked out, so none of them ever needs a second one; at a block
+ * boundary they at most wait for the reservation already under way.
+ */
+@Component
+public class KnNumberAllocator {
+
+    static final String SEQUENCE_NAME = "KN";
+    static final String PREFIX = "KN";
+    static final int SERIAL_DIGITS = 12;
+
+    private static final String RESERVE_SQL = "UPDATE sequence_block SET next_value = next_value + ? WHERE name = ?";
+    private static final String READ_SQL = "SELECT next_value FROM sequence_block WHERE name = ?";
+    private static final String CREATE_SQL = "INSERT INTO sequence_block (name, next_value) VALUES (?, ?)";
+    private static final int PREFETCH_PERCENT = 80;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final Object refillLock = new Object();
+    private final ExecutorService reserveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kn-block-reserver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // The next block, reserved or being reserved; null once taken by the refill
+    private final AtomicReference<CompletableFuture<Block>> upcoming = new AtomicReference<>();
+
+    private volatile Block current = new Block(0, 0, 0);
+
+    public KnNumberAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             @Value("${kyc.kn.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("kyc.kn.block-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        // Reservations commit on their own so the row lock is held for one statement, not the caller's transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Reserves the first block before any verification needs it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reserveFirstBlock() {
+        reserveAhead();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reserveExecutor.shutdownNow();
+    }
+
+    public String nextKnNumber() {
+        String serial = String.format("%0" + SERIAL_DIGITS + "d", nextSerial());
+        return PREFIX + serial + luhnCheckDigit(serial);
+    }
+
+    /**
+     * True when the value has the KN shape and its check digit matches, which catches any single
+     * mistyped digit and most swapped neighbours before a lookup is attempted.
+     */
+    public static boolean isValid(String knNumber) {
+        if (knNumber == null || knNumber.length() != PREFIX.length() + SERIAL_DIGITS + 1 || !knNumber.startsWith(PREFIX)) {
+            return false;
+        }
+        String digits = knNumber.substring(PREFIX.length());
+        for (int i = 0; i < digits.length(); i++) {
+            if (!Character.isDigit(digits.charAt(i))) {
+                return false;
+            }
+        }
+        String serial = digits.substring(0, SERIAL_DIGITS);
+        return digits.charAt(SERIAL_DIGITS) - '0' == luhnCheckDigit(serial);
+    }
+
+    long nextSerial() {
+        while (true) {
+            Block block = current;
+            long serial = block.next.getAndIncrement();
+            if (serial < block.end) {
+                if (serial == block.prefetchAt) {
+                    reserveAhead();
+                }
+                return serial;
+            }
+            synchronized (refillLock) {
+                // Only the first thread to find this block exhausted switches to the next one
+                if (current == block) {
+                    CompletableFuture<Block> next = reserveAhead();
+                    Block reserved = await(next);
+                    upcoming.compareAndSet(next, null);
+                    current = reserved;
+                }
+            }
+        }
+    }
+
+    // Starts reserving the next block on the reserver thread, unless one is already reserved or under way
+    private CompletableFuture<Block> reserveAhead() {
+        while (true) {
+            CompletableFuture<Block> pending = upcoming.get();
+            if (pending != null && !pending.isCompletedExceptionally()) {
+                return pending;
+            }
+            // None yet, or the last attempt failed: try again
+            CompletableFuture<Block> started = new CompletableFuture<>();
+            if (upcoming.compareAndSet(pending, started)) {
+                reserveExecutor.execute(() -> {
+                    try {
+                        started.complete(reserveBlock());
+                    } catch (RuntimeException e) {
+                        started.completeExceptionally(e);
+                    }
+                });
+                return started;
+            }
+        }
+    }
+
+    private static Block await(CompletableFuture<Block> next) {
+        try {
+            return next.join();
+        } catch (CompletionException e) {
+            // Surface the reservation's own failure (e.g. a DataAccessException) to the caller
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Block reserveBlock() {
+        Long end = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(RESERVE_SQL, blockSize, SEQUENCE_NAME) == 0) {
+                try {
+                    jdbcTemplate.update(CREATE_SQL, SEQUENCE_NAME, 1L + blockSize);
+                    return 1L + blockSize;
+                } catch (DuplicateKeyException e) {
+                    // Another node created the row first; take a block after theirs
+                    jdbcTemplate.update(RESERVE_SQL, blockSize, SEQUENCE_NAME);
+                }
+            }
+            return jdbcTemplate.queryForObject(READ_SQL, Long.class, SEQUENCE_NAME);
+        });
+        long start = end - blockSize;
+        return new Block(start, end, start + (long) blockSize * PREFETCH_PERCENT / 100);
+    }
+
+    static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true;  // rightmost payload digit is doubled once the check digit is appended
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    // Serials [next, end) of one reserved range; handing out prefetchAt starts reserving the next one
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+        final long prefetchAt;
+
+        Block(long start, long end, long prefetchAt) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = prefetchAt;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.dto.KycReferenceImportSummary;
+import com.virtusa.starfinance.dto.KycReferenceKeyView;
+import com.virtusa.starfinance.repository.KycReferenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Refreshes kyc_reference from large Aadhaar/PAN extracts. The CSV is decoded straight off the byte
+ * channel into a fixed read buffer and handled in batches of {@code kyc.reference.import.batch-size}:
+ * each batch checks its PANs' current holders with one IN query, then writes the accepted rows as one
+ * JDBC batch of upserts keyed on aadhaar_number, committed in its own transaction. Memory stays
+ * bounded by the batch whatever the file size, and a committed batch stays committed if a later one
+ * fails. A batch the database still rejects is retried row by row to pin down the bad rows.
+ *
+ * <p>The upserts bypass JPA, so KycReferenceIndex is reloaded once the file has been read.
+ */
+@Slf4j
+@Service
+public class KycReferenceImportService {
+
+    /**
+     * Receives rejected rows and per-batch progress as the load runs.
+     */
+    public interface Listener {
+        void rowRejected(long line, String message);
+
+        void batchCommitted(KycReferenceImportSummary progress);
+    }
+
+    // MySQL upsert (H2 accepts it in MySQL mode); created_at keeps its first-seen value. A PAN held by
+    // another Aadhaar would make it update that row instead, hence the holder check before each batch.
+    static final String UPSERT_SQL = "INSERT INTO kyc_reference (aadhaar_number, pan_number, full_name) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE pan_number = VALUES(pan_number), full_name = VALUES(full_name)";
+    private static final int READ_BUFFER_CHARS = 64 * 1024;
+    private static final int MAX_FULL_NAME_LENGTH = 100;
+    private static final List<String> REQUIRED_COLUMNS = List.of("aadhaarNumber", "panNumber", "fullName");
+
+    private final KycReferenceRepository kycReferenceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final KycReferenceIndex kycReferenceIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public KycReferenceImportService(KycReferenceRepository kycReferenceRepository, JdbcTemplate jdbcTemplate,
+                                     KycReferenceIndex kycReferenceIndex, PlatformTransactionManager transactionManager,
+                                     @Value("${kyc.reference.import.batch-size:2000}") int batchSize) {
+        this.kycReferenceRepository = kycReferenceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.kycReferenceIndex = kycReferenceIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Upserts every valid row of the CSV, reporting rejected rows and committed batches to the listener.
+     * Undecodable bytes are replaced rather than aborting the load, and fail row validation.
+     *
+     * @throws IllegalArgumentException if the header is missing or lacks a required column; nothing
+     *                                  has been read past the header or written at that point
+     */
+    public KycReferenceImportSummary importReferences(ReadableByteChannel input, Charset charset, Listener listener)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(Channels.newReader(input, charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE), -1), READ_BUFFER_CHARS);
+        int[] columns = parseHeader(reader.readLine());
+        long lineNumber = 1;
+
+        Progress progress = new Progress(System.nanoTime());
+        List<ParsedRow> batch = new ArrayList<>(batchSize);
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(parse(lineNumber, CsvLine.split(line), columns));
+                } catch (IllegalArgumentException e) {
+                    progress.reject(listener, lineNumber, e.getMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    upsertBatch(batch, listener, progress);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                upsertBatch(batch, listener, progress);
+            }
+        } finally {
+            if (progress.upserted > 0) {
+                kycReferenceIndex.reload();
+            }
+        }
+        KycReferenceImportSummary summary = progress.summary();
+        log.info("KYC reference load: {} rows upserted, {} rejected in {} ms ({} rows/s)",
+                summary.upserted(), summary.failed(), summary.elapsedMillis(), summary.rowsPerSecond());
+        return summary;
+    }
+
+    private void upsertBatch(List<ParsedRow> batch, Listener listener, Progress progress) {
+        Set<String> pans = new HashSet<>();
+        for (ParsedRow row : batch) {
+            pans.add(row.panNumber);
+        }
+        // Earlier batches are already committed, so this also catches PANs repeated across batches
+        Map<String, String> panHolders = new HashMap<>();
+        for (KycReferenceKeyView key : kycReferenceRepository.findKeysByPanNumberIn(pans)) {
+            panHolders.put(key.panNumber(), key.aadhaarNumber());
+        }
+        List<ParsedRow> accepted = new ArrayList<>(batch.size());
+        for (ParsedRow row : batch) {
+            String holder = panHolders.putIfAbsent(row.panNumber, row.aadhaarNumber);
+            if (holder != null && !holder.equals(row.aadhaarNumber)) {
+                progress.reject(listener, row.line, "PAN number already belongs to another Aadhaar number: " + row.panNumber);
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (!accepted.isEmpty()) {
+            write(accepted, listener, progress);
+        }
+        listener.batchCommitted(progress.summary());
+    }
+
+    private void write(List<ParsedRow> batch, Listener listener, Progress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(),
+                    (ps, row) -> {
+                        ps.setString(1, row.aadhaarNumber);
+                        ps.setString(2, row.panNumber);
+                        ps.setString(3, row.fullName);
+                    }));
+            progress.upserted += batch.size();
+        } catch (DataAccessException | TransactionException e) {
+            // A concurrent writer took one of the keys after the holder check; find the offending rows
+            log.warn("KYC reference batch of {} rows failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (ParsedRow row : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(UPSERT_SQL,
+                            row.aadhaarNumber, row.panNumber, row.fullName));
+                    progress.upserted++;
+                } catch (DataAccessException | TransactionException rowFailure) {
+                    progress.reject(listener, row.line, "Rejected by database: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private static ParsedRow parse(long line, List<String> values, int[] columns) {
+        ParsedRow row = new ParsedRow();
+        row.line = line;
+        row.aadhaarNumber = column(values, columns[0]);
+        row.panNumber = column(values, columns[1]);
+        row.fullName = column(values, columns[2]);
+        if (row.aadhaarNumber == null || KycReferenceIndex.packAadhaar(row.aadhaarNumber) < 0) {
+            throw new IllegalArgumentException("Invalid Aadhaar number: " + row.aadhaarNumber);
+        }
+        if (row.panNumber != null) {
+            row.panNumber = row.panNumber.toUpperCase(Locale.ROOT);
+        }
+        if (row.panNumber == null || KycReferenceIndex.packPan(row.panNumber) < 0) {
+            throw new IllegalArgumentException("Invalid PAN number: " + row.panNumber);
+        }
+        if (row.fullName == null) {
+            throw new IllegalArgumentException("fullName is required.");
+        }
+        if (row.fullName.length() > MAX_FULL_NAME_LENGTH) {
+            throw new IllegalArgumentException("fullName is longer than " + MAX_FULL_NAME_LENGTH + " characters.");
+        }
+        return row;
+    }
+
+    // Accepts both camelCase and the extract's snake_case names, e.g. aadhaarNumber or aadhaar_number
+    private static int[] parseHeader(String header) {
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("CSV header row is missing.");
+        }
+        Map<String, Integer> names = new HashMap<>();
+        List<String> values = CsvLine.split(header);
+        for (int i = 0; i < values.size(); i++) {
+            names.put(normalize(values.get(i)), i);
+        }
+        int[] columns = new int[REQUIRED_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            Integer index = names.get(normalize(REQUIRED_COLUMNS.get(i)));
+            if (index == null) {
+                throw new IllegalArgumentException("CSV header is missing required column: " + REQUIRED_COLUMNS.get(i));
+            }
+            columns[i] = index;
+        }
+        return columns;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String column(List<String> values, int index) {
+        if (index >= values.size() || values.get(index).isBlank()) {
+            return null;
+        }
+        return values.get(index).trim();
+    }
+
+    private static final class ParsedRow {
+        long line;
+        String aadhaarNumber;
+        String panNumber;
+        String fullName;
+    }
+
+    private static final class Progress {
+        final long startedNanos;
+        long upserted;
+        long failed;
+
+        Progress(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+
+        void reject(Listener listener, long line, String message) {
+            failed++;
+            listener.rowRejected(line, message);
+        }
+
+        KycReferenceImportSummary summary() {
+            return new KycReferenceImportSummary(upserted + failed, upserted, failed,
+                    (System.nanoTime() - startedNanos) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.dto.KycReferenceKeyView;
+import com.virtusa.starfinance.entity.KycReferenceChangeListener.KycReferenceChangedEvent;
+import com.virtusa.starfinance.repository.KycReferenceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory copy of kyc_reference for the Aadhaar/PAN pair check in KYC verification. Aadhaar
+ * (12 digits) and PAN (AAAAA9999A) are packed into longs and kept in an open-addressing long-to-long
+ * table keyed by Aadhaar, about 32 bytes per reference row with no per-entry objects. A Bloom filter
+ * over the packed pairs sits in front of it, so most unknown pairs are rejected without probing the
+ * table, and no lookup touches the database once the index is loaded.
+ *
+ * <p>The table is an immutable snapshot rebuilt from the database at startup and every
+ * {@code kyc.index.rebuild-interval-ms}. Between rebuilds, changes go to a small overlay map that
+ * lookups consult first: JPA writes arrive through KycReferenceChangeListener after commit, and rows
+ * inserted with raw SQL are picked up every {@code kyc.index.refresh-interval-ms} by polling ids
+ * above the last one seen. An update that may have changed a row's Aadhaar, or an overlay grown past
+ * an eighth of the snapshot, brings the next rebuild forward.
+ *
+ * <p>Until the first load completes, or for input the packing cannot represent while the reference
+ * data holds such rows, {@link #lookup} answers UNAVAILABLE and the caller queries the database.
+ */
+@Slf4j
+@Component
+public class KycReferenceIndex {
+
+    public enum Match { VERIFIED, NOT_FOUND, UNAVAILABLE }
+
+    private static final long REMOVED = -1;     // Overlay tombstone; packed PANs are never negative
+    private static final int MIN_OVERLAY_BEFORE_REBUILD = 1024;
+
+    private final KycReferenceRepository kycReferenceRepository;
+    private final int pageSize;
+    private final double falsePositiveRate;
+    private final long rebuildIntervalMs;
+    private final ConcurrentHashMap<Long, Long> overlay = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final Object refreshLock = new Object();
+    private final Counter verified;
+    private final Counter notFound;
+    private final Counter bloomRejected;
+    private final Counter unavailable;
+
+    private volatile Snapshot snapshot;
+    // Guarded by refreshLock
+    private long lastSeenId;
+    private long lastRebuildAt;
+
+    public KycReferenceIndex(KycReferenceRepository kycReferenceRepository, MeterRegistry meterRegistry,
+                             @Value("${kyc.index.page-size:10000}") int pageSize,
+                             @Value("${kyc.index.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${kyc.index.rebuild-interval-ms:21600000}") long rebuildIntervalMs) {
+        this.kycReferenceRepository = kycReferenceRepository;
+        this.pageSize = pageSize;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildIntervalMs = rebuildIntervalMs;
+        this.verified = meterRegistry.counter("kyc.index.lookups", "result", "verified");
+        this.notFound = meterRegistry.counter("kyc.index.lookups", "result", "not_found");
+        this.bloomRejected = meterRegistry.counter("kyc.index.lookups", "result", "bloom_rejected");
+        this.unavailable = meterRegistry.counter("kyc.index.lookups", "result", "unavailable");
+        Gauge.builder("kyc.index.size", this, index -> index.snapshot == null ? 0 : index.snapshot.size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the pair is a row of kyc_reference. UNAVAILABLE means the index cannot answer and the
+     * caller must ask the database.
+     */
+    public Match lookup(String aadhaarNumber, String panNumber) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            unavailable.increment();
+            return Match.UNAVAILABLE;
+        }
+        long aadhaar = packAadhaar(aadhaarNumber);
+        long pan = packPan(panNumber);
+        if (aadhaar < 0 || pan < 0) {
+            // Only the database can match rows stored in a shape the packing cannot represent
+            if (current.unpackableRows > 0) {
+                unavailable.increment();
+                return Match.UNAVAILABLE;
+            }
+            notFound.increment();
+            return Match.NOT_FOUND;
+        }
+        if (!overlay.isEmpty()) {
+            Long changed = overlay.get(aadhaar);
+            if (changed != null) {
+                return count(changed == pan);
+            }
+        }
+        if (!current.mightContain(aadhaar, pan)) {
+            bloomRejected.increment();
+            return Match.NOT_FOUND;
+        }
+        return count(current.panFor(aadhaar) == pan);
+    }
+
+    private Match count(boolean found) {
+        (found ? verified : notFound).increment();
+        return found ? Match.VERIFIED : Match.NOT_FOUND;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Lookups fall back to the database until a scheduled refresh succeeds
+            log.warn("KYC reference index could not be loaded: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds from the table now, for bulk writes that bypass JPA and may re-key existing rows.
+     */
+    public void reload() {
+        rebuildRequested.set(true);
+        load();
+    }
+
+    /**
+     * Picks up reference rows inserted since the last refresh, or rebuilds the snapshot when one is
+     * due, requested, or the overlay has grown too large.
+     */
+    @Scheduled(fixedDelayString = "${kyc.index.refresh-interval-ms:60000}",
+            initialDelayString = "${kyc.index.refresh-interval-ms:60000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            Snapshot current = snapshot;
+            if (current == null
+                    || rebuildRequested.getAndSet(false)
+                    || System.currentTimeMillis() - lastRebuildAt >= rebuildIntervalMs
+                    || overlay.size() > Math.max(MIN_OVERLAY_BEFORE_REBUILD, current.size / 8)) {
+                rebuild();
+                return;
+            }
+            List<KycReferenceKeyView> page;
+            do {
+                page = kycReferenceRepository.findKeysAfter(lastSeenId, PageRequest.of(0, pageSize));
+                for (KycReferenceKeyView key : page) {
+                    if (!put(key.aadhaarNumber(), key.panNumber())) {
+                        rebuildRequested.set(true);
+                    }
+                    lastSeenId = key.id();
+                }
+            } while (page.size() == pageSize);
+        }
+    }
+
+    /**
+     * Change-driven update: runs once the transaction that wrote kyc_reference has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceChanged(KycReferenceChangedEvent event) {
+        if (snapshot == null) {
+            return;     // The initial load reads the committed row
+        }
+        switch (event.change()) {
+            case INSERTED -> {
+                if (!put(event.aadhaarNumber(), event.panNumber())) {
+                    rebuildRequested.set(true);
+                }
+            }
+            case UPDATED -> {
+                // The previous Aadhaar is not known here, so a rebuild drops it if it changed
+                put(event.aadhaarNumber(), event.panNumber());
+                rebuildRequested.set(true);
+            }
+            case REMOVED -> {
+                long aadhaar = packAadhaar(event.aadhaarNumber());
+                if (aadhaar >= 0) {
+                    overlay.put(aadhaar, REMOVED);
+                }
+                rebuildRequested.set(true);
+            }
+        }
+    }
+
+    private boolean put(String aadhaarNumber, String panNumber) {
+        long aadhaar = packAadhaar(aadhaarNumber);
+        long pan = packPan(panNumber);
+        if (aadhaar < 0 || pan < 0) {
+            return false;
+        }
+        overlay.put(aadhaar, pan);
+        return true;
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        long[] aadhaars = new long[1024];
+        long[] pans = new long[1024];
+        int count = 0;
+        int unpackable = 0;
+        long afterId = 0;
+        List<KycReferenceKeyView> page;
+        do {
+            page = kycReferenceRepository.findKeysAfter(afterId, PageRequest.of(0, pageSize));
+            for (KycReferenceKeyView key : page) {
+                afterId = key.id();
+                long aadhaar = packAadhaar(key.aadhaarNumber());
+                long pan = packPan(key.panNumber());
+                if (aadhaar < 0 || pan < 0) {
+                    unpackable++;
+                    continue;
+                }
+                if (count == aadhaars.length) {
+                    aadhaars = Arrays.copyOf(aadhaars, count * 2);
+                    pans = Arrays.copyOf(pans, count * 2);
+                }
+                aadhaars[count] = aadhaar;
+                pans[count] = pan;
+                count++;
+            }
+        } while (page.size() == pageSize);
+
+        Snapshot fresh = new Snapshot(aadhaars, pans, count, unpackable, falsePositiveRate);
+        snapshot = fresh;
+        lastSeenId = afterId;
+        lastRebuildAt = started;
+        // Keep only overlay entries committed after the rows above were read
+        overlay.forEach((aadhaar, pan) -> {
+            long indexed = fresh.panFor(aadhaar);
+            if (indexed == pan || (pan == REMOVED && indexed < 0)) {
+                overlay.remove(aadhaar, pan);
+            }
+        });
+        if (unpackable > 0) {
+            log.warn("KYC reference index: {} rows are not in Aadhaar/PAN format and are only matched in the database", unpackable);
+        }
+        log.info("KYC reference index rebuilt: {} rows in {} ms", count, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * 12 decimal digits as their value, or -1 if the input is not in that shape.
+     */
+    static long packAadhaar(String aadhaarNumber) {
+        if (aadhaarNumber == null || aadhaarNumber.length() != 12) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < 12; i++) {
+            char c = aadhaarNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * AAAAA9999A as a mixed-radix number (26^6 * 10^4 values, about 42 bits), or -1 if the input is not
+     * in that shape.
+     */
+    static long packPan(String panNumber) {
+        if (panNumber == null || panNumber.length() != 10) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = panNumber.charAt(i);
+            boolean letter = i < 5 || i == 9;
+            if (letter ? (c < 'A' || c > 'Z') : (c < '0' || c > '9')) {
+                return -1;
+            }
+            value = letter ? value * 26 + (c - 'A') : value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Stafford variant 13 of the MurmurHash3 finaliser: spreads sequential keys across the table and filter
+    static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Immutable Aadhaar-to-PAN table plus the Bloom filter over its pairs.
+     */
+    static final class Snapshot {
+        final int size;
+        final int unpackableRows;
+        private final long[] keys;      // packed Aadhaar + 1, 0 = empty slot
+        private final long[] values;
+        private final int mask;
+        private final long[] bloom;
+        private final long bloomBits;
+        private final int bloomHashes;
+
+        Snapshot(long[] aadhaars, long[] pans, int size, int unpackableRows, double falsePositiveRate) {
+            this.size = size;
+            this.unpackableRows = unpackableRows;
+            // Load factor at most 0.5 keeps linear probes short
+            int capacity = Integer.highestOneBit(Math.max(16, size * 2 - 1)) << 1;
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.mask = capacity - 1;
+
+            int n = Math.max(size, 1);
+            this.bloomBits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+            this.bloomHashes = (int) Math.max(1, Math.min(16, Math.round((double) bloomBits / n * Math.log(2))));
+            this.bloom = new long[(int) ((bloomBits + 63) >>> 6)];
+
+            for (int i = 0; i < size; i++) {
+                insert(aadhaars[i], pans[i]);
+                long hash = mix(aadhaars[i] * 31 + pans[i]);
+                for (int k = 0; k < bloomHashes; k++) {
+                    long bit = bloomBit(hash, k);
+                    bloom[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+
+        private void insert(long aadhaar, long pan) {
+            int slot = (int) mix(aadhaar) & mask;
+            while (keys[slot] != 0 && keys[slot] != aadhaar + 1) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = aadhaar + 1;
+            values[slot] = pan;
+        }
+
+        long panFor(long aadhaar) {
+            int slot = (int) mix(aadhaar) & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == aadhaar + 1) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        boolean mightContain(long aadhaar, long pan) {
+            long hash = mix(aadhaar * 31 + pan);
+            for (int k = 0; k < bloomHashes; k++) {
+                long bit = bloomBit(hash, k);
+                if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Kirsch-Mitzenmacher double hashing: k probes from the two halves of one 64-bit hash
+        private long bloomBit(long hash, int k) {
+            long combined = (hash & 0xffffffffL) + k * (hash >>> 32);
+            return Math.floorMod(combined, bloomBits);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.dto.CustomerKycProfileView;
+import com.virtusa.starfinance.dto.KycRequest;
+import com.virtusa.starfinance.dto.KycResponse;
+import com.virtusa.starfinance.repository.CustomerRepository;
+import com.virtusa.starfinance.repository.KycReferenceRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * KYC verification and profile updates in one transaction. The reference check is served by
+ * KycReferenceIndex, and the customer and any other owner of the submitted Aadhaar/PAN are read as
+ * projections with one query. The submitted form is compared with the stored columns and only the
+ * changed ones are written, with one targeted UPDATE and no entity snapshot to dirty-check; an
+ * unchanged re-submit writes nothing. A concurrent claim of the same Aadhaar/PAN, which the read
+ * cannot see, surfaces as a unique-constraint violation on customer.aadhaar / pan_card.
+ */
+@Service
+@RequiredArgsConstructor
+public class KycVerificationService {
+
+    static final String REFERENCE_MISMATCH_MSG = "KYC verification failed. Aadhaar and PAN details do not match official records.";
+    static final String AADHAAR_IN_USE_MSG = "Aadhaar number is already linked to another user.";
+    static final String PAN_IN_USE_MSG = "PAN card number is already linked to another user.";
+    static final String IDENTITY_IN_USE_MSG = "Aadhaar or PAN card number is already linked to another user.";
+
+    /**
+     * Form fields that apply to both initial verification and later updates, with the Customer
+     * attribute each one is stored in.
+     */
+    private enum ProfileField {
+        NAME("name", KycRequest::getFullName, CustomerKycProfileView::name),
+        DATE_OF_BIRTH("dateOfBirth", KycRequest::getDateOfBirth, CustomerKycProfileView::dateOfBirth),
+        GENDER("gender", KycRequest::getGender, CustomerKycProfileView::gender),
+        MOBILE_NUMBER("mobileNumber", KycRequest::getMobileNumber, CustomerKycProfileView::mobileNumber),
+        PASSPORT_NUMBER("passportNumber", KycRequest::getPassportNumber, CustomerKycProfileView::passportNumber),
+        FULL_ADDRESS("fullAddress", KycRequest::getAddress, CustomerKycProfileView::fullAddress),
+        CITY("city", KycRequest::getCity, CustomerKycProfileView::city),
+        STATE("state", KycRequest::getState, CustomerKycProfileView::state),
+        PIN_CODE("pinCode", KycRequest::getPinCode, CustomerKycProfileView::pinCode),
+        OCCUPATION("occupation", KycRequest::getOccupation, CustomerKycProfileView::occupation),
+        INCOME("income", KycRequest::getIncome, CustomerKycProfileView::income),
+        BANK_ACCOUNT_NUMBER("bankAccountNumber", KycRequest::getBankAccountNumber, CustomerKycProfileView::bankAccountNumber),
+        IFSC_CODE("ifscCode", KycRequest::getIfscCode, CustomerKycProfileView::ifscCode),
+        EXISTING_LOANS("existingLoans", KycRequest::getExistingLoans, CustomerKycProfileView::existingLoans);
+
+        private final String attribute;
+        private final Function<KycRequest, String> submitted;
+        private final Function<CustomerKycProfileView, String> stored;
+
+        ProfileField(String attribute, Function<KycRequest, String> submitted, Function<CustomerKycProfileView, String> stored) {
+            this.attribute = attribute;
+            this.submitted = submitted;
+            this.stored = stored;
+        }
+    }
+
+    private final CustomerRepository customerRepository;
+    private final KycReferenceRepository kycReferenceRepository;
+    private final KycReferenceIndex kycReferenceIndex;
+    private final KnNumberAllocator knNumberAllocator;
+
+    /**
+     * Verifies the customer's Aadhaar/PAN on first submission, then stores the profile details.
+     *
+     * @throws IllegalArgumentException if the details do not match the reference data or are already
+     *                                  linked to another customer; nothing is written in that case
+     */
+    @Transactional
+    public KycResponse verify(String email, KycRequest request) {
+        List<CustomerKycProfileView> matches = customerRepository.findKycProfilesByEmailOrIdentity(
+                email, request.getAadhaarNumber(), request.getPanNumber());
+        CustomerKycProfileView customer = matches.stream()
+                .filter(candidate -> email.equalsIgnoreCase(candidate.email()))
+                .findFirst()
+                .orElseThrow(() -> new NoSuchElementException("Customer not found"));
+
+        boolean alreadyVerified = Boolean.TRUE.equals(customer.kycStatus());
+        Map<String, Object> changes = new LinkedHashMap<>();
+        String knNumber = customer.knNumber();
+
+        // Core identity validation, only while KYC is not yet verified
+        if (!alreadyVerified) {
+            if (!referenceMatches(request.getAadhaarNumber(), request.getPanNumber())) {
+                throw new IllegalArgumentException(REFERENCE_MISMATCH_MSG);
+            }
+            for (CustomerKycProfileView other : matches) {
+                if (other == customer) {
+                    continue;
+                }
+                if (request.getAadhaarNumber().equals(other.aadhaar())) {
+                    throw new IllegalArgumentException(AADHAAR_IN_USE_MSG);
+                }
+                if (request.getPanNumber().equals(other.panCard())) {
+                    throw new IllegalArgumentException(PAN_IN_USE_MSG);
+                }
+            }
+
+            knNumber = knNumberAllocator.nextKnNumber();
+            changes.put("knNumber", knNumber);
+            changes.put("kycStatus", true);     // Maps to kyc_status (updated to 1)
+            changes.put("kycVerified", true);   // Maps to kyc_verified (updated to 1)
+            changes.put("aadhaar", request.getAadhaarNumber());
+            changes.put("panCard", request.getPanNumber());
+        } else if (!Boolean.TRUE.equals(customer.kycVerified())) {
+            // Keep kyc_verified consistent with kyc_status
+            changes.put("kycVerified", true);
+        }
+
+        for (ProfileField field : ProfileField.values()) {
+            String submitted = field.submitted.apply(request);
+            if (!Objects.equals(submitted, field.stored.apply(customer))) {
+                changes.put(field.attribute, submitted);
+            }
+        }
+
+        if (!changes.isEmpty()) {
+            try {
+                customerRepository.updateAttributes(customer.id(), changes);
+            } catch (DataIntegrityViolationException e) {
+                // Another customer claimed the Aadhaar or PAN between the read above and this write
+                throw new IllegalArgumentException(IDENTITY_IN_USE_MSG, e);
+            }
+        }
+
+        return new KycResponse(alreadyVerified ? "Profile updated successfully" : "KYC verified successfully", knNumber);
+    }
+
+    private boolean referenceMatches(String aadhaarNumber, String panNumber) {
+        KycReferenceIndex.Match match = kycReferenceIndex.lookup(aadhaarNumber, panNumber);
+        if (match == KycReferenceIndex.Match.UNAVAILABLE) {
+            // Index still loading: ask the table
+            return kycReferenceRepository.findByAadhaarNumberAndPanNumber(aadhaarNumber, panNumber).isPresent();
+        }
+        return match == KycReferenceIndex.Match.VERIFIED;
+    }
+}
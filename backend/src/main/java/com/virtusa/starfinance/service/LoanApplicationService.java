@@ -7,30 +7,63 @@ import com.virtusa.starfinance.entity.LoanApplication;
 import com.virtusa.starfinance.repository.AssetRepository;
 import com.virtusa.starfinance.repository.CustomerRepository;
 import com.virtusa.starfinance.repository.LoanApplicationRepository;
+import com.virtusa.starfinance.service.LoanStateMachine.Actor;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import com.virtusa.starfinance.dto.LoanDetailsResponse.ApplicantDetails;
 import com.virtusa.starfinance.dto.LoanDetailsResponse.AssetDetails;
 import com.virtusa.starfinance.dto.LoanDetailsResponse.FinancialDetails;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class LoanApplicationService {
 
     private static final String RID_NOT_FOUND_MSG = "Loan application not found with RID: ";
-    private static final String STATUS_OFFER_ACCEPTED = "OFFER_ACCEPTED";
-    private static final String STATUS_OFFER_REJECTED = "OFFER_REJECTED";
+    private static final int QUEUE_DEFAULT_PAGE_SIZE = 25;
+    private static final int QUEUE_MAX_PAGE_SIZE = 100;
+    private static final String CURSOR_SEPARATOR = "~";
+    // Same versioned write Hibernate issues for a single transition; 0 rows means someone else got there first
+    private static final String BULK_STATUS_UPDATE_SQL = "UPDATE loanapplication SET status = ?, rejection_reason = ?, "
+            + "version = version + 1 WHERE id = ? AND version = ?";
 
     private final CustomerRepository customerRepository;
     private final AssetRepository assetRepository;
     private final LoanApplicationRepository loanApplicationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanStateMachine loanStateMachine;
+    private final JdbcTemplate jdbcTemplate;
+    private final LoanRidGenerator loanRidGenerator;
+
+    /**
+     * Published for every status change and consumed by LoanAuditLog after commit.
+     * {@code fromStatus} is null when the application is created.
+     */
+    public record LoanStatusChangedEvent(String rid, LoanApplication.LoanStatus fromStatus,
+                                         LoanApplication.LoanStatus toStatus, String actor, String reason,
+                                         LocalDateTime occurredAt) {
+    }
 
     @Transactional
     public String createLoanApplication(LoanApplicationRequest request) {
@@ -53,46 +86,39 @@ public class LoanApplicationService {
         loanApplication.setCustomer(customer);
         loanApplication.setAsset(asset);
         loanApplication.setAmount(BigDecimal.valueOf(request.getAmountSeeking()));
-        loanApplication.setRid("GLN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        loanApplication.setRid(loanRidGenerator.nextRid());
         loanApplication.setStatus(LoanApplication.LoanStatus.PENDING);
 
         loanApplication = loanApplicationRepository.save(loanApplication);
+        recordTransition(loanApplication, null, currentActor(), null);
 
         return loanApplication.getRid();
     }
 
     /**
      * Retrieves all loan applications for the authenticated Customer.
+     * Reads flat projection rows, so the lazy customer/asset associations are never initialized.
      */
     public List<LoanResponse> getLoansByCustomerId(Long customerId) {
-        List<LoanApplication> loanApplications = loanApplicationRepository.findByCustomerId(customerId);
-
-        return loanApplications.stream()
-                .map(loan -> {
+        return loanApplicationRepository.findSummariesByCustomerId(customerId).stream()
+                .map(view -> {
                     LoanResponse response = new LoanResponse();
-                    response.setId(loan.getRid());
-                    response.setStatus(loan.getStatus().name());
-
-                    Customer customer = loan.getCustomer();
-                    if (customer != null) {
-                        response.setName(customer.getName());
-                        response.setKn(customer.getKnNumber());
-                    } else {
-                        response.setName("N/A");
-                        response.setKn("N/A");
-                    }
+                    response.setId(view.rid());
+                    response.setStatus(view.status().name());
+                    response.setName(view.customerName());
+                    response.setKn(view.knNumber());
 
-                    if (loan.getAsset() != null && loan.getAsset().getType() != null) {
-                        response.setType("Gold Loan - " + loan.getAsset().getType().getDbValue());
+                    if (view.assetType() != null) {
+                        response.setType("Gold Loan - " + view.assetType().getDbValue());
                     } else {
                         response.setType("Gold Loan");
                     }
 
-                    response.setCreatedAt(loan.getCreatedAt());
+                    response.setCreatedAt(view.createdAt());
 
-                    response.setFinalValue(loan.getFinalValue());
+                    response.setFinalValue(view.finalValue());
 
-                    response.setRejectionReason(loan.getRejectionReason());
+                    response.setRejectionReason(view.rejectionReason());
 
                     return response;
                 })
@@ -103,29 +129,95 @@ public class LoanApplicationService {
      * Retrieves all loan applications for the Employee Dashboard.
      */
     public List<LoanResponse> getAllLoanApplications() {
-        List<LoanApplication> loanApplications = loanApplicationRepository.findAll();
+        return loanApplicationRepository.findAllSummaries().stream()
+                .map(LoanApplicationService::toQueueResponse)
+                .toList();
+    }
 
-        return loanApplications.stream()
-                .map(loan -> {
-                    LoanResponse response = new LoanResponse();
-                    response.setId(loan.getRid());
-                    response.setStatus(loan.getStatus().name());
+    private static LoanResponse toQueueResponse(LoanSummaryView view) {
+        LoanResponse response = new LoanResponse();
+        response.setId(view.rid());
+        response.setStatus(view.status().name());
+        response.setName(view.customerName());
+        response.setKn(view.knNumber());
+        response.setType("Gold Loan");
+        response.setCreatedAt(view.createdAt());
+        return response;
+    }
 
-                    Customer customer = loan.getCustomer();
-                    if (customer != null) {
-                        response.setName(customer.getName());
-                        response.setKn(customer.getKnNumber());
-                    } else {
-                        response.setName("Unknown");
-                        response.setKn("N/A");
-                    }
+    /**
+     * Keyset-paginated employee loan queue, newest first.
+     * Each call reads at most size + 1 rows, so cost stays O(page) regardless of table size.
+     *
+     * @param status optional LoanStatus name filter (case-insensitive)
+     * @param from   optional inclusive start date (by created_at)
+     * @param to     optional inclusive end date (by created_at)
+     * @param cursor opaque cursor from the previous page's nextCursor, or null for the first page
+     * @param size   requested page size, clamped to 1..100
+     * @throws IllegalArgumentException if the status or cursor is invalid
+     */
+    @Transactional
+    public LoanQueuePage getLoanQueue(String status, LocalDate from, LocalDate to, String cursor, Integer size) {
+        LoanApplication.LoanStatus statusFilter = null;
+        if (status != null && !status.isBlank()) {
+            statusFilter = loanStateMachine.parseStatus(status);
+        }
 
-                    response.setType("Gold Loan");
-                    response.setCreatedAt(loan.getCreatedAt());
+        int pageSize = size == null ? QUEUE_DEFAULT_PAGE_SIZE : Math.clamp(size, 1, QUEUE_MAX_PAGE_SIZE);
+
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            try {
+                cursorCreatedAt = LocalDateTime.parse(parts[0]);
+                cursorId = Long.valueOf(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
 
-                    return response;
-                })
+        List<LoanSummaryView> rows = loanApplicationRepository.findQueuePage(
+                statusFilter,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                cursorCreatedAt,
+                cursorId,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<LoanSummaryView> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<LoanResponse> items = page.stream()
+                .map(LoanApplicationService::toQueueResponse)
                 .toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            LoanSummaryView last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(last.createdAt(), last.id());
+        }
+
+        return new LoanQueuePage(items, nextCursor, hasMore);
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split(CURSOR_SEPARATOR, 2);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return parts;
     }
 
     /**
@@ -136,29 +228,141 @@ public class LoanApplicationService {
         LoanApplication loanApp = loanApplicationRepository.findByRid(rid)
                 .orElseThrow(() -> new NoSuchElementException(RID_NOT_FOUND_MSG + rid));
 
-        if ((newStatus.equalsIgnoreCase(STATUS_OFFER_ACCEPTED) || newStatus.equalsIgnoreCase(STATUS_OFFER_REJECTED))
-                && !loanApp.getStatus().name().equalsIgnoreCase("OFFER_MADE")) {
+        LoanApplication.LoanStatus previous = loanApp.getStatus();
+        LoanApplication.LoanStatus status = loanStateMachine.parseStatus(newStatus);
+        loanStateMachine.requireTransition(Actor.EMPLOYEE, previous, status);
+        loanApp.setStatus(status);
+
+        // CRITICAL FIX: Explicitly handle saving/clearing the rejectionReason
+        if (status == LoanApplication.LoanStatus.REJECTED_FOR_REVIEW) {
+            // Save the reason provided by the employee
+            loanApp.setRejectionReason(rejectionReason);
+        } else if (loanApp.getRejectionReason() != null) {
+            // Clear the reason when moving to any other non-rejection status
+            loanApp.setRejectionReason(null);
+        }
+
+        loanApplicationRepository.save(loanApp);
+        recordTransition(loanApp, previous, currentActor(), loanApp.getRejectionReason());
+    }
+
+    /**
+     * Applies a queue sweep of employee status updates in one transaction: one IN query loads every
+     * loan's status and version, the state machine checks each item in memory, and the accepted
+     * items go out as a single JDBC batch of versioned UPDATEs. Items fail individually (unknown RID,
+     * bad status, disallowed transition, concurrent change, repeated RID) without affecting the rest.
+     */
+    @Transactional
+    public BulkLoanStatusUpdateResponse updateLoanStatuses(List<BulkLoanStatusUpdateRequest.Item> items) {
+        Set<String> rids = new HashSet<>();
+        for (BulkLoanStatusUpdateRequest.Item item : items) {
+            rids.add(item.getRid());
+        }
+        Map<String, LoanStatusTransitionView> current = new HashMap<>();
+        for (LoanStatusTransitionView view : loanApplicationRepository.findTransitionViewsByRidIn(rids)) {
+            current.put(view.rid(), view);
+        }
+
+        List<BulkLoanStatusUpdateResponse.ItemResult> results = new ArrayList<>(items.size());
+        List<Object[]> batch = new ArrayList<>();
+        List<LoanStatusChangedEvent> changes = new ArrayList<>();
+        List<Integer> resultIndexes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        String actor = currentActor();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (BulkLoanStatusUpdateRequest.Item item : items) {
+            String rid = item.getRid();
+            LoanStatusTransitionView view = current.get(rid);
+            if (!seen.add(rid)) {
+                results.add(failure(rid, BulkLoanStatusUpdateResponse.Outcome.DUPLICATE, "RID appears more than once in the request."));
+                continue;
+            }
+            if (view == null) {
+                results.add(failure(rid, BulkLoanStatusUpdateResponse.Outcome.NOT_FOUND, RID_NOT_FOUND_MSG + rid));
+                continue;
+            }
+            LoanApplication.LoanStatus status;
+            try {
+                status = loanStateMachine.parseStatus(item.getNewStatus());
+                loanStateMachine.requireTransition(Actor.EMPLOYEE, view.status(), status);
+            } catch (IllegalArgumentException e) {
+                results.add(failure(rid, BulkLoanStatusUpdateResponse.Outcome.INVALID_STATUS, e.getMessage()));
+                continue;
+            } catch (IllegalStateException e) {
+                results.add(failure(rid, BulkLoanStatusUpdateResponse.Outcome.INVALID_TRANSITION, e.getMessage()));
+                continue;
+            }
+            // Same rule as updateLoanStatus: only a send-back for review carries a reason
+            String reason = status == LoanApplication.LoanStatus.REJECTED_FOR_REVIEW ? item.getRejectionReason() : null;
+            batch.add(new Object[]{status.name(), reason, view.id(), view.version()});
+            changes.add(new LoanStatusChangedEvent(rid, view.status(), status, actor, reason, now));
+            resultIndexes.add(results.size());
+            results.add(new BulkLoanStatusUpdateResponse.ItemResult(rid, BulkLoanStatusUpdateResponse.Outcome.UPDATED, null));
+        }
 
-            throw new IllegalStateException("Cannot process offer decision. Current status is " + loanApp.getStatus().name() + ". Must be Offer Made.");
+        int updated = 0;
+        if (!batch.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(BULK_STATUS_UPDATE_SQL, batch);
+            Map<Long, LoanStatusTransitionView> reread = rereadUnreported(counts, batch);
+            for (int i = 0; i < counts.length; i++) {
+                if (!applied(counts[i], batch.get(i), changes.get(i), reread)) {
+                    String rid = changes.get(i).rid();
+                    results.set(resultIndexes.get(i), failure(rid, BulkLoanStatusUpdateResponse.Outcome.CONFLICT,
+                            "Loan was modified by another request. Reload it and try again."));
+                    continue;
+                }
+                updated++;
+                eventPublisher.publishEvent(changes.get(i));
+            }
         }
+        return new BulkLoanStatusUpdateResponse(updated, items.size() - updated, results);
+    }
 
-        try {
-            LoanApplication.LoanStatus status = LoanApplication.LoanStatus.valueOf(newStatus.toUpperCase());
-            loanApp.setStatus(status);
-
-            // CRITICAL FIX: Explicitly handle saving/clearing the rejectionReason
-            if (status == LoanApplication.LoanStatus.REJECTED_FOR_REVIEW) {
-                // Save the reason provided by the employee
-                loanApp.setRejectionReason(rejectionReason);
-            } else if (loanApp.getRejectionReason() != null) {
-                // Clear the reason when moving to any other non-rejection status
-                loanApp.setRejectionReason(null);
+    /**
+     * A rewritten batch can come back as Statement.SUCCESS_NO_INFO instead of row counts; the rows
+     * behind those entries are read back in one query so each can still be classified.
+     */
+    private Map<Long, LoanStatusTransitionView> rereadUnreported(int[] counts, List<Object[]> batch) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                ids.add((Long) batch.get(i)[2]);
             }
+        }
+        Map<Long, LoanStatusTransitionView> views = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (LoanStatusTransitionView view : loanApplicationRepository.findTransitionViewsByIdIn(ids)) {
+                views.put(view.id(), view);
+            }
+        }
+        return views;
+    }
 
-            loanApplicationRepository.save(loanApp);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid loan status: " + newStatus);
+    // Applied only on a reported count of 1, or, without a count, if the row now holds this
+    // transition's status at the version the UPDATE would have written
+    private static boolean applied(int count, Object[] row, LoanStatusChangedEvent change,
+                                   Map<Long, LoanStatusTransitionView> reread) {
+        if (count != Statement.SUCCESS_NO_INFO) {
+            return count == 1;
         }
+        LoanStatusTransitionView view = reread.get((Long) row[2]);
+        return view != null && view.status() == change.toStatus() && view.version() == (Long) row[3] + 1;
+    }
+
+    private static BulkLoanStatusUpdateResponse.ItemResult failure(String rid, BulkLoanStatusUpdateResponse.Outcome outcome,
+                                                                   String message) {
+        return new BulkLoanStatusUpdateResponse.ItemResult(rid, outcome, message);
+    }
+
+    /**
+     * Statuses the given actor may move the loan to next, so the UI only offers actions that will succeed.
+     */
+    @Transactional
+    public LoanNextActionsResponse getAllowedNextStatuses(String rid, Actor actor) {
+        LoanApplication.LoanStatus status = loanApplicationRepository.findStatusByRid(rid)
+                .orElseThrow(() -> new NoSuchElementException(RID_NOT_FOUND_MSG + rid));
+        return new LoanNextActionsResponse(rid, status, List.copyOf(loanStateMachine.allowedTargets(actor, status)));
     }
 
     /**
@@ -178,65 +382,51 @@ public class LoanApplicationService {
         }
 
         // 2. State Transition Check (Must move from Verified to GOLD_SUBMITTED)
-        if (!loanApp.getStatus().name().equalsIgnoreCase("VERIFIED")) {
-            throw new IllegalStateException("Cannot submit gold. Loan status is " + loanApp.getStatus().name() + ". Must be Verified.");
+        LoanApplication.LoanStatus previous = loanApp.getStatus();
+        LoanApplication.LoanStatus status = loanStateMachine.parseStatus(newStatus);
+        if (!loanStateMachine.canTransition(Actor.CUSTOMER, previous, status)) {
+            throw new IllegalStateException("Cannot submit gold. Loan status is " + previous.name() + ". Must be Verified.");
         }
 
-        try {
-            // 3. Update Status
-            LoanApplication.LoanStatus status = LoanApplication.LoanStatus.valueOf(newStatus.toUpperCase());
-            loanApp.setStatus(status);
-            loanApplicationRepository.save(loanApp);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid loan status: " + newStatus);
-        }
+        // 3. Update Status
+        loanApp.setStatus(status);
+        loanApplicationRepository.save(loanApp);
+        recordTransition(loanApp, previous, customerEmail, null);
     }
 
 
     @Transactional
     public LoanDetailsResponse getLoanDetailsByRid(String rid) {
-        LoanApplication loanApp = loanApplicationRepository.findByRid(rid)
+        LoanDetailsView view = loanApplicationRepository.findDetailsByRid(rid)
                 .orElseThrow(() -> new NoSuchElementException(RID_NOT_FOUND_MSG + rid));
 
-        Customer customer = loanApp.getCustomer();
-        Asset asset = loanApp.getAsset();
-
         LoanDetailsResponse response = new LoanDetailsResponse();
-        response.setRid(loanApp.getRid());
-        response.setStatus(loanApp.getStatus());
-        response.setCreatedAt(loanApp);
-        response.setAmount(loanApp.getAmount());
+        response.setRid(view.rid());
+        response.setStatus(view.status());
+        response.setCreatedAt(view.createdAt());
+        response.setAmount(view.amount());
 
-        response.setRejectionReason(loanApp.getRejectionReason());
+        response.setRejectionReason(view.rejectionReason());
 
         ApplicantDetails applicantDetails = new ApplicantDetails();
-        if (customer != null) {
-            applicantDetails.setFullName(customer.getName());
-            applicantDetails.setKnNumber(customer.getKnNumber());
-            applicantDetails.setMobileNumber(customer.getMobileNumber());
-            applicantDetails.setEmailId(customer.getEmail());
-        }
+        applicantDetails.setFullName(view.customerName());
+        applicantDetails.setKnNumber(view.knNumber());
+        applicantDetails.setMobileNumber(view.mobileNumber());
+        applicantDetails.setEmailId(view.email());
         response.setApplicant(applicantDetails);
 
         AssetDetails assetDetails = new AssetDetails();
         assetDetails.setItemType("N/A - Gold");
         assetDetails.setNumberOfItems(1);
-        if (asset != null) {
-            Optional.ofNullable(asset.getType()).ifPresent(type -> assetDetails.setPurity(type.getDbValue()));
-            assetDetails.setNetWeight(asset.getWeight());
-        } else {
-            assetDetails.setPurity("N/A");
-            assetDetails.setNetWeight(BigDecimal.ZERO);
-        }
+        Optional.ofNullable(view.assetType()).ifPresent(type -> assetDetails.setPurity(type.getDbValue()));
+        assetDetails.setNetWeight(view.assetWeight());
         response.setAsset(assetDetails);
 
         FinancialDetails financialDetails = new FinancialDetails();
-        if (customer != null) {
-            financialDetails.setAccountHolderName(customer.getName());
-            financialDetails.setAccountNumber(customer.getBankAccountNumber());
-            financialDetails.setIfscCode(customer.getIfscCode());
-            financialDetails.setBankName("Inferred/Verified Bank");
-        }
+        financialDetails.setAccountHolderName(view.customerName());
+        financialDetails.setAccountNumber(view.bankAccountNumber());
+        financialDetails.setIfscCode(view.ifscCode());
+        financialDetails.setBankName("Inferred/Verified Bank");
         response.setFinancial(financialDetails);
 
         return response;
@@ -248,15 +438,17 @@ public class LoanApplicationService {
                 .orElseThrow(() -> new NoSuchElementException(RID_NOT_FOUND_MSG + rid));
 
         // 1. State check (Must be GOLD_SUBMITTED)
-        if (!loanApp.getStatus().name().equalsIgnoreCase("GOLD_SUBMITTED")) {
+        if (!loanStateMachine.canTransition(Actor.EMPLOYEE, loanApp.getStatus(), LoanApplication.LoanStatus.EVALUATED)) {
             throw new IllegalStateException("Cannot evaluate. Loan status is " + loanApp.getStatus().name() + ". Must be GOLD_SUBMITTED.");
         }
 
         // 2. Update LoanApplication entity (Status and Final Value)
+        LoanApplication.LoanStatus previous = loanApp.getStatus();
         loanApp.setStatus(LoanApplication.LoanStatus.EVALUATED);
         // This line now works:
         loanApp.setFinalValue(request.getFinalValue());
         loanApplicationRepository.save(loanApp);
+        recordTransition(loanApp, previous, currentActor(), null);
 
         // 3. Update Asset entity (Quality Index)
         Asset asset = loanApp.getAsset();
@@ -281,18 +473,20 @@ public class LoanApplicationService {
         }
 
         // 2. State Check: Must be OFFER_MADE
-        if (!loanApp.getStatus().name().equalsIgnoreCase("OFFER_MADE")) {
-            throw new IllegalStateException("Offer not active. Current status: " + loanApp.getStatus().name());
+        LoanApplication.LoanStatus previous = loanApp.getStatus();
+        if (!loanStateMachine.canTransition(Actor.CUSTOMER, previous, LoanApplication.LoanStatus.OFFER_ACCEPTED)) {
+            throw new IllegalStateException("Offer not active. Current status: " + previous.name());
         }
 
         // 3. Status Transition Check
-        if (newStatus.equalsIgnoreCase(STATUS_OFFER_ACCEPTED) || newStatus.equalsIgnoreCase(STATUS_OFFER_REJECTED)) {
-            LoanApplication.LoanStatus status = LoanApplication.LoanStatus.valueOf(newStatus.toUpperCase());
-            loanApp.setStatus(status);
-            loanApplicationRepository.save(loanApp);
-        } else {
+        // From OFFER_MADE the customer can only accept or reject
+        LoanApplication.LoanStatus status = loanStateMachine.parseStatus(newStatus);
+        if (!loanStateMachine.canTransition(Actor.CUSTOMER, previous, status)) {
             throw new IllegalArgumentException("Invalid offer decision status: " + newStatus);
         }
+        loanApp.setStatus(status);
+        loanApplicationRepository.save(loanApp);
+        recordTransition(loanApp, previous, customerEmail, null);
     }
 
     @Transactional
@@ -301,13 +495,15 @@ public class LoanApplicationService {
                 .orElseThrow(() -> new NoSuchElementException(RID_NOT_FOUND_MSG + rid));
 
         // State check: Must be OFFER_ACCEPTED (Step 5 complete)
-        if (!loanApp.getStatus().name().equalsIgnoreCase(STATUS_OFFER_ACCEPTED)) {
+        if (!loanStateMachine.canTransition(Actor.EMPLOYEE, loanApp.getStatus(), LoanApplication.LoanStatus.DISBURSED)) {
             throw new IllegalStateException("Loan cannot be disbursed. Current status is " + loanApp.getStatus().name() + ". Must be OFFER_ACCEPTED.");
         }
 
         // Final status update
+        LoanApplication.LoanStatus previous = loanApp.getStatus();
         loanApp.setStatus(LoanApplication.LoanStatus.DISBURSED);
         loanApplicationRepository.save(loanApp);
+        recordTransition(loanApp, previous, currentActor(), null);
     }
 
     @Transactional
@@ -322,7 +518,7 @@ public class LoanApplicationService {
         if (!loanApp.getCustomer().getId().equals(customer.getId())) {
             throw new SecurityException("Access denied: Loan does not belong to the authenticated customer.");
         }
-        if (!loanApp.getStatus().name().equalsIgnoreCase(STATUS_OFFER_REJECTED)) {
+        if (!loanStateMachine.canTransition(Actor.CUSTOMER, loanApp.getStatus(), LoanApplication.LoanStatus.PAID_FINE)) {
             throw new IllegalStateException("Cannot pay fine. Current status is " + loanApp.getStatus().name() + ". Must be Offer Rejected.");
         }
 
@@ -330,8 +526,10 @@ public class LoanApplicationService {
         // In a real app, this verifies request.fineAmount against actual fine amount.
 
         // 3. Update Status
+        LoanApplication.LoanStatus previous = loanApp.getStatus();
         loanApp.setStatus(LoanApplication.LoanStatus.PAID_FINE);
         loanApplicationRepository.save(loanApp);
+        recordTransition(loanApp, previous, customerEmail, null);
     }
 
     /**
@@ -343,13 +541,15 @@ public class LoanApplicationService {
                 .orElseThrow(() -> new NoSuchElementException(RID_NOT_FOUND_MSG + rid));
 
         // 1. State Check: Must be PAID_FINE
-        if (!loanApp.getStatus().name().equalsIgnoreCase("PAID_FINE")) {
+        if (!loanStateMachine.canTransition(Actor.EMPLOYEE, loanApp.getStatus(), LoanApplication.LoanStatus.GOLD_COLLECTED)) {
             throw new IllegalStateException("Cannot collect gold. Current status is " + loanApp.getStatus().name() + ". Must be PAID_FINE.");
         }
 
         // 2. Update Status to terminal states
+        LoanApplication.LoanStatus previous = loanApp.getStatus();
         loanApp.setStatus(LoanApplication.LoanStatus.GOLD_COLLECTED);
         loanApplicationRepository.save(loanApp);
+        recordTransition(loanApp, previous, currentActor(), null);
 
     }
 
@@ -367,11 +567,12 @@ public class LoanApplicationService {
         }
 
         // 2. State Transition Check (Must move from REJECTED_FOR_REVIEW to PENDING)
-        if (!loanApp.getStatus().name().equalsIgnoreCase("REJECTED_FOR_REVIEW")) {
+        if (!loanStateMachine.canTransition(Actor.CUSTOMER, loanApp.getStatus(), LoanApplication.LoanStatus.PENDING)) {
             throw new IllegalStateException("Cannot re-apply. Current status is " + loanApp.getStatus().name() + ". Must be REJECTED_FOR_REVIEW.");
         }
 
         // 3. Update Status
+        LoanApplication.LoanStatus previous = loanApp.getStatus();
         try {
             loanApp.setStatus(LoanApplication.LoanStatus.PENDING);
 
@@ -382,5 +583,16 @@ public class LoanApplicationService {
         } catch (Exception e) {
             throw new IllegalStateException("Failed to save updated loan status to PENDING.");
         }
+        recordTransition(loanApp, previous, customerEmail, null);
+    }
+
+    private void recordTransition(LoanApplication loanApp, LoanApplication.LoanStatus previous, String actor, String reason) {
+        eventPublisher.publishEvent(new LoanStatusChangedEvent(loanApp.getRid(), previous, loanApp.getStatus(),
+                actor, reason, LocalDateTime.now()));
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
     }
-}
\ No newline at end of file
+}
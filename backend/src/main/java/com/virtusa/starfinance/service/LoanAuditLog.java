@@ -0,0 +1,163 @@
+package com.virtusa.starfinance.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes loan status transitions to loan_status_event off the request path. Committed transitions
+ * are appended to a bounded ring buffer and a single writer thread batch-inserts them, one
+ * transaction per batch.
+ *
+ * <p>Loss is bounded: a full buffer makes the committing thread insert its own record instead of
+ * dropping it, a failed batch is logged record by record at ERROR, and on shutdown the writer gets
+ * {@code audit.loan.shutdown-timeout-ms} to drain; whatever is still buffered after that is logged
+ * the same way and counted in {@code loan.audit.dropped}.
+ */
+@Slf4j
+@Component
+public class LoanAuditLog {
+
+    static final String INSERT_SQL = "INSERT INTO loan_status_event (rid, actor, from_status, to_status, reason, occurred_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArrayBlockingQueue<LoanApplicationService.LoanStatusChangedEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final Counter written;
+    private final Counter overflow;
+    private final Counter dropped;
+    private final Thread writer;
+
+    private volatile boolean running;
+
+    public LoanAuditLog(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                        @Value("${audit.loan.buffer-capacity:4096}") int bufferCapacity,
+                        @Value("${audit.loan.batch-size:200}") int batchSize,
+                        @Value("${audit.loan.flush-interval-ms:200}") long flushIntervalMs,
+                        @Value("${audit.loan.shutdown-timeout-ms:5000}") long shutdownTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Batches commit on their own, whatever transaction (if any) the caller is finishing
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.written = meterRegistry.counter("loan.audit.written");
+        this.overflow = meterRegistry.counter("loan.audit.overflow");
+        this.dropped = meterRegistry.counter("loan.audit.dropped");
+        Gauge.builder("loan.audit.buffer.size", buffer, ArrayBlockingQueue::size).register(meterRegistry);
+        this.writer = new Thread(this::drainLoop, "loan-audit-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Runs once the transition's transaction has committed, so rolled-back changes are never audited.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(LoanApplicationService.LoanStatusChangedEvent event) {
+        if (running && buffer.offer(event)) {
+            return;
+        }
+        // Buffer full or writer stopped: pay for one INSERT here rather than lose the record
+        overflow.increment();
+        flush(List.of(event));
+    }
+
+    private void drainLoop() {
+        List<LoanApplicationService.LoanStatusChangedEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                LoanApplicationService.LoanStatusChangedEvent first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(List<LoanApplicationService.LoanStatusChangedEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (LoanApplicationService.LoanStatusChangedEvent event : batch) {
+            rows.add(new Object[]{
+                    event.rid(),
+                    event.actor(),
+                    event.fromStatus() != null ? event.fromStatus().name() : null,
+                    event.toStatus().name(),
+                    event.reason(),
+                    Timestamp.valueOf(event.occurredAt())
+            });
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+            written.increment(batch.size());
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Loan audit batch of {} failed: {}", batch.size(), e.getMessage());
+            batch.forEach(this::logLost);
+        }
+    }
+
+    private void logLost(LoanApplicationService.LoanStatusChangedEvent event) {
+        dropped.increment();
+        // The log line is the record of last resort
+        log.error("Loan audit record not persisted: {}", event);
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            writer.interrupt();
+            List<LoanApplicationService.LoanStatusChangedEvent> unwritten = new ArrayList<>();
+            buffer.drainTo(unwritten);
+            unwritten.forEach(this::logLost);
+            return;
+        }
+        // Records that raced the writer's exit
+        List<LoanApplicationService.LoanStatusChangedEvent> late = new ArrayList<>();
+        buffer.drainTo(late);
+        if (!late.isEmpty()) {
+            flush(late);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.virtusa.starfinance.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.virtusa.starfinance.dto.CustomerKycStateView;
+import com.virtusa.starfinance.dto.LoanImportRow;
+import com.virtusa.starfinance.dto.LoanImportSummary;
+import com.virtusa.starfinance.entity.Asset;
+import com.virtusa.starfinance.entity.LoanApplication;
+import com.virtusa.starfinance.repository.AssetRepository;
+import com.virtusa.starfinance.repository.CustomerRepository;
+import com.virtusa.starfinance.repository.LoanApplicationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads historical gold loans for a branch migration from CSV or NDJSON. The input is read one line
+ * at a time and handled in batches of {@code loan.import.batch-size}: each batch checks its customers'
+ * KYC state and its RIDs with one IN query apiece, then writes the accepted assets and loans in its
+ * own transaction, where pooled ids let Hibernate send them as JDBC batches. Memory stays bounded by
+ * the batch whatever the file size, and a committed batch stays committed if a later one fails.
+ * A batch the database rejects is retried row by row to pin down the bad rows.
+ */
+@Slf4j
+@Service
+public class LoanImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    /**
+     * Receives rejected rows and per-batch progress as the import runs.
+     */
+    public interface Listener {
+        void rowRejected(long line, String rid, String message);
+
+        void batchCommitted(LoanImportSummary progress);
+    }
+
+    static final String IMPORT_REASON = "Imported";
+    private static final List<String> REQUIRED_COLUMNS = List.of("customerEmail", "purity", "netWeight", "amount");
+
+    private final CustomerRepository customerRepository;
+    private final AssetRepository assetRepository;
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final LoanStateMachine loanStateMachine;
+    private final LoanRidGenerator loanRidGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader rowReader;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public LoanImportService(CustomerRepository customerRepository, AssetRepository assetRepository,
+                             LoanApplicationRepository loanApplicationRepository, LoanStateMachine loanStateMachine,
+                             LoanRidGenerator loanRidGenerator, ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                             @Value("${loan.import.batch-size:500}") int batchSize) {
+        this.customerRepository = customerRepository;
+        this.assetRepository = assetRepository;
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.loanStateMachine = loanStateMachine;
+        this.loanRidGenerator = loanRidGenerator;
+        this.eventPublisher = eventPublisher;
+        this.rowReader = objectMapper.readerFor(LoanImportRow.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports every row of the input, reporting rejected rows and committed batches to the listener.
+     *
+     * @throws IllegalArgumentException if a CSV header is missing or lacks a required column; nothing
+     *                                  has been read past the header or written at that point
+     */
+    public LoanImportSummary importLoans(Reader input, Format format, String actor, Listener listener) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        long lineNumber = 0;
+        Map<String, Integer> columns = null;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            columns = parseHeader(header);
+        }
+
+        Progress progress = new Progress();
+        List<ParsedRow> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ParsedRow row;
+            try {
+                LoanImportRow raw = format == Format.CSV ? toRow(CsvLine.split(line), columns) : rowReader.readValue(line);
+                row = validate(lineNumber, raw);
+            } catch (JsonProcessingException e) {
+                progress.reject(listener, lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException e) {
+                progress.reject(listener, lineNumber, null, e.getMessage());
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                importBatch(batch, actor, listener, progress);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, actor, listener, progress);
+        }
+        return progress.summary();
+    }
+
+    private void importBatch(List<ParsedRow> batch, String actor, Listener listener, Progress progress) {
+        Set<String> emails = new HashSet<>();
+        Set<String> rids = new HashSet<>();
+        for (ParsedRow row : batch) {
+            emails.add(row.customerEmail);
+            if (row.rid != null) {
+                rids.add(row.rid);
+            }
+        }
+        Map<String, CustomerKycStateView> customers = new HashMap<>();
+        for (CustomerKycStateView view : customerRepository.findKycStatesByEmailIn(emails)) {
+            customers.put(view.email(), view);
+        }
+        // Earlier batches are already committed, so this also catches RIDs repeated across batches
+        Set<String> takenRids = rids.isEmpty() ? new HashSet<>() : new HashSet<>(loanApplicationRepository.findExistingRids(rids));
+
+        List<ParsedRow> accepted = new ArrayList<>(batch.size());
+        for (ParsedRow row : batch) {
+            CustomerKycStateView customer = customers.get(row.customerEmail);
+            if (customer == null) {
+                progress.reject(listener, row.line, row.rid, "Customer not found: " + row.customerEmail);
+            } else if (!Boolean.TRUE.equals(customer.kycVerified())) {
+                progress.reject(listener, row.line, row.rid, "Customer KYC is not verified: " + row.customerEmail);
+            } else if (row.rid != null && !takenRids.add(row.rid)) {
+                progress.reject(listener, row.line, row.rid, "RID already exists: " + row.rid);
+            } else {
+                row.customerId = customer.id();
+                accepted.add(row);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeBatch(accepted, actor));
+                progress.imported += accepted.size();
+            } catch (DataAccessException | TransactionException e) {
+                // One bad row (e.g. a RID taken after the check above) fails the whole batch; find it
+                log.warn("Loan import batch of {} rows failed, retrying row by row: {}", accepted.size(), e.getMessage());
+                for (ParsedRow row : accepted) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> writeBatch(List.of(row), actor));
+                        progress.imported++;
+                    } catch (DataAccessException | TransactionException rowFailure) {
+                        progress.reject(listener, row.line, row.rid, "Rejected by database: " + rowFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+        listener.batchCommitted(progress.summary());
+    }
+
+    private void writeBatch(List<ParsedRow> rows, String actor) {
+        List<Asset> assets = new ArrayList<>(rows.size());
+        List<LoanApplication> loans = new ArrayList<>(rows.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (ParsedRow row : rows) {
+            Asset asset = new Asset();
+            asset.setCustomer(customerRepository.getReferenceById(row.customerId));
+            asset.setType(row.purity);
+            asset.setWeight(row.netWeight);
+            assets.add(asset);
+
+            LoanApplication loan = new LoanApplication();
+            loan.setRid(row.rid != null ? row.rid : loanRidGenerator.nextRid());
+            loan.setCustomer(asset.getCustomer());
+            loan.setAsset(asset);
+            loan.setAmount(row.amount);
+            loan.setFinalValue(row.finalValue);
+            loan.setStatus(row.status);
+            loan.setCreatedAt(row.createdAt != null ? row.createdAt : now);
+            loans.add(loan);
+        }
+        assetRepository.saveAll(assets);
+        loanApplicationRepository.saveAll(loans);
+        for (LoanApplication loan : loans) {
+            eventPublisher.publishEvent(new LoanApplicationService.LoanStatusChangedEvent(
+                    loan.getRid(), null, loan.getStatus(), actor, IMPORT_REASON, now));
+        }
+    }
+
+    private ParsedRow validate(long line, LoanImportRow raw) {
+        ParsedRow row = new ParsedRow();
+        row.line = line;
+        row.rid = blankToNull(raw.getRid());
+        row.customerEmail = blankToNull(raw.getCustomerEmail());
+        if (row.customerEmail == null) {
+            throw new IllegalArgumentException("customerEmail is required.");
+        }
+        if (raw.getPurity() == null) {
+            throw new IllegalArgumentException("purity is required.");
+        }
+        row.purity = Asset.AssetType.fromPurity(raw.getPurity().trim().toUpperCase(Locale.ROOT));
+        row.netWeight = requirePositive("netWeight", raw.getNetWeight());
+        row.amount = requirePositive("amount", raw.getAmount());
+        row.finalValue = raw.getFinalValue();
+        row.status = raw.getStatus() == null || raw.getStatus().isBlank()
+                ? LoanApplication.LoanStatus.PENDING
+                : loanStateMachine.parseStatus(raw.getStatus().trim());
+        row.createdAt = raw.getCreatedAt();
+        return row;
+    }
+
+    private static BigDecimal requirePositive(String name, BigDecimal value) {
+        if (value == null || value.signum() <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than 0.");
+        }
+        return value;
+    }
+
+    private static Map<String, Integer> parseHeader(String header) {
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("CSV header row is missing.");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvLine.split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static LoanImportRow toRow(List<String> values, Map<String, Integer> columns) {
+        LoanImportRow row = new LoanImportRow();
+        row.setRid(column(values, columns, "rid"));
+        row.setCustomerEmail(column(values, columns, "customerEmail"));
+        row.setPurity(column(values, columns, "purity"));
+        row.setNetWeight(decimal("netWeight", column(values, columns, "netWeight")));
+        row.setAmount(decimal("amount", column(values, columns, "amount")));
+        row.setStatus(column(values, columns, "status"));
+        row.setFinalValue(decimal("finalValue", column(values, columns, "finalValue")));
+        String createdAt = column(values, columns, "createdAt");
+        try {
+            row.setCreatedAt(createdAt == null ? null : LocalDateTime.parse(createdAt));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("createdAt must be an ISO date-time (e.g. 2024-03-01T10:15:00).");
+        }
+        return row;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= values.size() ? null : blankToNull(values.get(index));
+    }
+
+    private static BigDecimal decimal(String name, String value) {
+        try {
+            return value == null ? null : new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + value);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static final class ParsedRow {
+        long line;
+        String rid;
+        String customerEmail;
+        Long customerId;
+        Asset.AssetType purity;
+        BigDecimal netWeight;
+        BigDecimal amount;
+        BigDecimal finalValue;
+        LoanApplication.LoanStatus status;
+        LocalDateTime createdAt;
+    }
+
+    private static final class Progress {
+        long imported;
+        long failed;
+
+        void reject(Listener listener, long line, String rid, String message) {
+            failed++;
+            listener.rowRejected(line, rid, message);
+        }
+
+        LoanImportSummary summary() {
+            return new LoanImportSummary(imported + failed, imported, failed);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.virtusa.starfinance.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Issues loan RIDs of the form {@code GLN-XXXXXXXXXXXXX}: a 63-bit id of
+ * [41 bits milliseconds since 2025-01-01 | 10 bits node | 12 bits sequence] written as 13 Crockford
+ * base32 characters. Ids from one node are strictly increasing, and because the encoding is fixed
+ * width in ascending ASCII they sort the same way as strings, so new rows append to the right edge
+ * of the rid index instead of landing at random pages.
+ *
+ * <p>Uniqueness needs no randomness and no database round trip: the time and sequence are packed into
+ * one AtomicLong that only moves forward. A burst of more than 4096 ids in a millisecond, or a clock
+ * that steps backwards, simply borrows from the next logical millisecond. Nodes sharing a database
+ * must be given distinct {@code loan.rid.node-id} values.
+ */
+@Component
+public class LoanRidGenerator {
+
+    static final String PREFIX = "GLN-";
+    static final long EPOCH_MILLIS = 1735689600000L;  // 2025-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;  // ceil(63 / 5)
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+    // (millis since EPOCH_MILLIS) << SEQUENCE_BITS | sequence of the last id handed out
+    private final AtomicLong lastTimeAndSequence = new AtomicLong();
+
+    @Autowired
+    public LoanRidGenerator(@Value("${loan.rid.node-id:0}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    LoanRidGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("loan.rid.node-id must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public String nextRid() {
+        return PREFIX + encode(nextId());
+    }
+
+    long nextId() {
+        long next;
+        long last;
+        do {
+            last = lastTimeAndSequence.get();
+            long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            // last + 1 rolls an exhausted sequence into the next millisecond
+            next = Math.max(now, last + 1);
+        } while (!lastTimeAndSequence.compareAndSet(last, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
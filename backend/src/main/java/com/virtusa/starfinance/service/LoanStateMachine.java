@@ -0,0 +1,120 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.entity.LoanApplication.LoanStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.virtusa.starfinance.entity.LoanApplication.LoanStatus.*;
+
+/**
+ * Allowed loan status transitions per actor, precomputed into EnumSets (one bitmask per
+ * actor and source status). Lookups allocate nothing; every LoanApplicationService mutation goes
+ * through {@link #requireTransition}.
+ */
+@Component
+public class LoanStateMachine {
+
+    public enum Actor { CUSTOMER, EMPLOYEE }
+
+    private static final Map<Actor, Map<LoanStatus, Set<LoanStatus>>> TRANSITIONS = new EnumMap<>(Actor.class);
+    private static final Map<String, LoanStatus> STATUS_BY_NAME = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        Map<LoanStatus, Set<LoanStatus>> employee = table();
+        // Step 1: document verification (a loan sent back for review can be verified directly)
+        allow(employee, PENDING, VERIFIED, REJECTED_FOR_REVIEW);
+        allow(employee, REJECTED_FOR_REVIEW, VERIFIED);
+        // Step 3: gold inspection, then evaluation
+        allow(employee, GOLD_SUBMITTED, EVALUATED, REJECTED);
+        // Step 4: offer
+        allow(employee, EVALUATED, OFFER_MADE, REJECTED);
+        // Step 6 / 6.5: disbursement or collateral release
+        allow(employee, OFFER_ACCEPTED, DISBURSED);
+        allow(employee, PAID_FINE, GOLD_COLLECTED);
+        TRANSITIONS.put(Actor.EMPLOYEE, freeze(employee));
+
+        Map<LoanStatus, Set<LoanStatus>> customer = table();
+        allow(customer, VERIFIED, GOLD_SUBMITTED);
+        allow(customer, OFFER_MADE, OFFER_ACCEPTED, OFFER_REJECTED);
+        allow(customer, OFFER_REJECTED, PAID_FINE);
+        allow(customer, REJECTED_FOR_REVIEW, PENDING);
+        TRANSITIONS.put(Actor.CUSTOMER, freeze(customer));
+
+        for (LoanStatus status : LoanStatus.values()) {
+            STATUS_BY_NAME.put(status.name(), status);
+        }
+    }
+
+    private static Map<LoanStatus, Set<LoanStatus>> table() {
+        Map<LoanStatus, Set<LoanStatus>> table = new EnumMap<>(LoanStatus.class);
+        for (LoanStatus status : LoanStatus.values()) {
+            table.put(status, EnumSet.noneOf(LoanStatus.class));
+        }
+        return table;
+    }
+
+    private static void allow(Map<LoanStatus, Set<LoanStatus>> table, LoanStatus from, LoanStatus... to) {
+        Collections.addAll(table.get(from), to);
+    }
+
+    private static Map<LoanStatus, Set<LoanStatus>> freeze(Map<LoanStatus, Set<LoanStatus>> table) {
+        table.replaceAll((from, to) -> Collections.unmodifiableSet(to));
+        return Collections.unmodifiableMap(table);
+    }
+
+    /**
+     * Statuses {@code actor} may move a loan to from {@code from}; empty for terminal states.
+     */
+    public Set<LoanStatus> allowedTargets(Actor actor, LoanStatus from) {
+        return TRANSITIONS.get(actor).get(from);
+    }
+
+    public boolean canTransition(Actor actor, LoanStatus from, LoanStatus to) {
+        return allowedTargets(actor, from).contains(to);
+    }
+
+    /**
+     * @throws IllegalStateException if the move is not allowed, naming the statuses {@code to} is reachable from
+     */
+    public void requireTransition(Actor actor, LoanStatus from, LoanStatus to) {
+        if (canTransition(actor, from, to)) {
+            return;
+        }
+        Set<LoanStatus> sources = sourcesOf(actor, to);
+        if (sources.isEmpty()) {
+            throw new IllegalStateException("Loan status " + to + " cannot be set by " + actor + ".");
+        }
+        throw new IllegalStateException("Cannot move loan to " + to + ". Current status is " + from
+                + ". Must be one of " + sources + ".");
+    }
+
+    /**
+     * Case-insensitive status lookup without the upper-cased copy {@code valueOf(s.toUpperCase())} makes.
+     *
+     * @throws IllegalArgumentException for unknown names
+     */
+    public LoanStatus parseStatus(String name) {
+        LoanStatus status = name != null ? STATUS_BY_NAME.get(name) : null;
+        if (status == null) {
+            throw new IllegalArgumentException("Invalid loan status: " + name);
+        }
+        return status;
+    }
+
+    private Set<LoanStatus> sourcesOf(Actor actor, LoanStatus to) {
+        // Error path only
+        Set<LoanStatus> sources = EnumSet.noneOf(LoanStatus.class);
+        TRANSITIONS.get(actor).forEach((from, targets) -> {
+            if (targets.contains(to)) {
+                sources.add(from);
+            }
+        });
+        return sources;
+    }
+}
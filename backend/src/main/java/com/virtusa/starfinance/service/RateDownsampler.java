@@ -0,0 +1,83 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.dto.GoldRateHistoryPoint;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds rate ticks into fixed-width buckets over [from, to), keeping min/max/sum/count per
+ * bucket, so a chart of any range costs at most {@code maxPoints} points regardless of how
+ * many ticks it spans. Timestamps are epoch millis of the UTC-encoded LocalDateTime.
+ */
+final class RateDownsampler {
+
+    private final long from;
+    private final long bucketMillis;
+    private final double[] min;
+    private final double[] max;
+    private final double[] sum;
+    private final int[] count;
+
+    RateDownsampler(long from, long to, int maxPoints) {
+        this.from = from;
+        // Whole-second buckets, at most maxPoints of them
+        this.bucketMillis = Math.max(1, Math.ceilDiv(Math.ceilDiv(to - from, maxPoints), 1000)) * 1000;
+        int buckets = (int) Math.ceilDiv(to - from, bucketMillis);
+        this.min = new double[buckets];
+        this.max = new double[buckets];
+        this.sum = new double[buckets];
+        this.count = new int[buckets];
+    }
+
+    void accept(long timestamp, double rate) {
+        long offset = timestamp - from;
+        if (offset < 0) {
+            return;
+        }
+        int bucket = (int) (offset / bucketMillis);
+        if (bucket >= count.length) {
+            return;
+        }
+        if (count[bucket] == 0) {
+            min[bucket] = rate;
+            max[bucket] = rate;
+        } else {
+            min[bucket] = Math.min(min[bucket], rate);
+            max[bucket] = Math.max(max[bucket], rate);
+        }
+        sum[bucket] += rate;
+        count[bucket]++;
+    }
+
+    long bucketSeconds() {
+        return bucketMillis / 1000;
+    }
+
+    /**
+     * Non-empty buckets in time order; averages are rounded to paise like the stored rates.
+     */
+    List<GoldRateHistoryPoint> toPoints() {
+        List<GoldRateHistoryPoint> points = new ArrayList<>();
+        for (int i = 0; i < count.length; i++) {
+            if (count[i] == 0) {
+                continue;
+            }
+            double avg = Math.round(sum[i] / count[i] * 100.0) / 100.0;
+            points.add(new GoldRateHistoryPoint(toLocalDateTime(from + i * bucketMillis),
+                    min[i], max[i], avg, count[i]));
+        }
+        return points;
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,92 @@
+package com.virtusa.starfinance.service;
+
+/**
+ * Fixed-capacity ring of one karat's most recent rate ticks, stored column-wise in two
+ * primitive arrays (16 bytes per tick, no per-tick objects). Timestamps are epoch millis
+ * and must be appended in non-decreasing order. All methods lock the instance; appends are
+ * rare (one per rate change) and scans touch only the requested range.
+ */
+final class RateTickWindow {
+
+    private final long[] timestamps;
+    private final double[] rates;
+    private int head;           // index of the oldest tick
+    private int size;
+    private boolean truncated;  // older ticks exist in the database but not here
+
+    RateTickWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Window capacity must be positive");
+        }
+        this.timestamps = new long[capacity];
+        this.rates = new double[capacity];
+    }
+
+    /**
+     * Marks the window as missing ticks older than its first entry (set when seeding
+     * from a history longer than the capacity).
+     */
+    synchronized void markTruncated() {
+        truncated = true;
+    }
+
+    synchronized void append(long timestamp, double rate) {
+        int capacity = timestamps.length;
+        int tail = (head + size) % capacity;
+        timestamps[tail] = timestamp;
+        rates[tail] = rate;
+        if (size < capacity) {
+            size++;
+        } else {
+            head = (head + 1) % capacity;
+            truncated = true;
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Rate of the newest tick; only meaningful when the window is not empty.
+     */
+    synchronized double lastRate() {
+        return rates[(head + size - 1) % timestamps.length];
+    }
+
+    /**
+     * True when every tick at or after {@code from} is held in memory.
+     */
+    synchronized boolean covers(long from) {
+        return !truncated || (size > 0 && timestamps[head] <= from);
+    }
+
+    /**
+     * Feeds every tick in [from, to) to the downsampler, oldest first.
+     */
+    synchronized void scan(long from, long to, RateDownsampler downsampler) {
+        int capacity = timestamps.length;
+        for (int i = firstAtOrAfter(from); i < size; i++) {
+            int slot = (head + i) % capacity;
+            if (timestamps[slot] >= to) {
+                break;
+            }
+            downsampler.accept(timestamps[slot], rates[slot]);
+        }
+    }
+
+    // Binary search over logical positions 0..size-1
+    private int firstAtOrAfter(long from) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[(head + mid) % timestamps.length] < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,109 @@
+package com.virtusa.starfinance.service;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One log line per request, sampled: {@code request.log.sample-rate} of requests are logged, plus every
+ * 5xx and every request slower than {@code request.log.slow-threshold-ms}. An exception escaping the chain
+ * is logged as the 500 it becomes, and async requests are logged when they complete. The query string
+ * is left out, as it can carry tokens or identity numbers.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public RequestLoggingFilter(@Value("${request.log.sample-rate:1.0}") double sampleRate,
+                                @Value("${request.log.slow-threshold-ms:1000}") long slowThresholdMillis) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!log.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            // Not an error response yet; the container turns it into a 500 after this filter returns
+            log(request, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, started);
+            throw e;
+        }
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncCompletionListener(request, response, sampled, started));
+            return;
+        }
+        int status = response.getStatus();
+        if (sampled || status >= 500 || System.nanoTime() - started >= slowThresholdNanos) {
+            log(request, status, started);
+        }
+    }
+
+    private static void log(HttpServletRequest request, int status, long started) {
+        log.info("{} {} {} in {} ms", request.getMethod(), request.getRequestURI(), status,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Logs an async request (e.g. the rates SSE stream) once it completes. Streams stay open by
+     * design, so only sampling and failures apply, not the slow threshold.
+     */
+    private static final class AsyncCompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final boolean sampled;
+        private final long started;
+        private volatile boolean failed;
+
+        AsyncCompletionListener(HttpServletRequest request, HttpServletResponse response, boolean sampled, long started) {
+            this.request = request;
+            this.response = response;
+            this.sampled = sampled;
+            this.started = started;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (sampled || status >= 500) {
+                log(request, status, started);
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
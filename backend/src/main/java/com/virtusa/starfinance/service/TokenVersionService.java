@@ -0,0 +1,77 @@
+package com.virtusa.starfinance.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.virtusa.starfinance.repository.CustomerRepository;
+import com.virtusa.starfinance.repository.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Revocation check for stateless JWT authentication. Every account has a token version that
+ * AuthService bumps on password change/reset; a token is only accepted while its "ver" claim
+ * matches. Current versions are cached for a short TTL so steady-state requests stay off the
+ * database; local changes evict immediately, other instances converge within the TTL.
+ * Disable with jwt.revocation.enabled=false to trust tokens until expiry.
+ */
+@Service
+public class TokenVersionService {
+
+    // Cached for accounts that no longer exist, so their tokens are rejected without a query each time
+    private static final int UNKNOWN_ACCOUNT = -1;
+
+    private final CustomerRepository customerRepository;
+    private final EmployeeRepository employeeRepository;
+    private final boolean enabled;
+    private final Cache<String, Integer> currentVersions;
+
+    public TokenVersionService(CustomerRepository customerRepository,
+                               EmployeeRepository employeeRepository,
+                               @Value("${jwt.revocation.enabled:true}") boolean enabled,
+                               @Value("${jwt.revocation.cache-ttl-seconds:30}") long cacheTtlSeconds,
+                               @Value("${jwt.revocation.cache-max-size:10000}") long cacheMaxSize) {
+        this.customerRepository = customerRepository;
+        this.employeeRepository = employeeRepository;
+        this.enabled = enabled;
+        this.currentVersions = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    /**
+     * True if a token carrying {@code tokenVersion} is still valid for the account.
+     *
+     * @param employee whether the username belongs to the employee table (from the token's authorities)
+     */
+    public boolean isCurrent(String username, boolean employee, int tokenVersion) {
+        if (!enabled) {
+            return true;
+        }
+        Integer current = currentVersions.get(cacheKey(username, employee), key -> loadVersion(username, employee));
+        return current != UNKNOWN_ACCOUNT && current == tokenVersion;
+    }
+
+    /**
+     * Drops cached versions once the transaction that changed an account's credentials commits.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(AuthService.CredentialsChangedEvent event) {
+        currentVersions.invalidate(cacheKey(event.username(), false));
+        currentVersions.invalidate(cacheKey(event.username(), true));
+    }
+
+    private int loadVersion(String username, boolean employee) {
+        return (employee
+                ? employeeRepository.findTokenVersionByUsername(username)
+                : customerRepository.findTokenVersionByEmail(username))
+                .orElse(UNKNOWN_ACCOUNT);
+    }
+
+    private static String cacheKey(String username, boolean employee) {
+        return (employee ? "E:" : "C:") + username;
+    }
+}
@@ -1,13 +1,21 @@
 package com.virtusa.starfinance.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.virtusa.starfinance.entity.Customer;
-import com.virtusa.starfinance.entity.Employee;
+import com.virtusa.starfinance.entity.LoginIdentity;
 import com.virtusa.starfinance.repository.CustomerRepository;
 import com.virtusa.starfinance.repository.EmployeeRepository;
+import com.virtusa.starfinance.repository.LoginIdentityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
@@ -16,64 +24,106 @@ import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 
+@Slf4j
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService, OAuth2UserService<OAuth2UserRequest, OAuth2User> {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService,
+        OAuth2UserService<OAuth2UserRequest, OAuth2User> {
 
     private final CustomerRepository customerRepository;
     private final EmployeeRepository employeeRepository;
+    private final LoginIdentityRepository loginIdentityRepository;
     private final DefaultOAuth2UserService oAuth2UserService = new DefaultOAuth2UserService();
 
-    public UserDetailsServiceImpl(CustomerRepository customerRepository, EmployeeRepository employeeRepository) {
+    // Login bursts re-authenticate the same accounts; unknown usernames are not cached
+    private final Cache<String, AuthenticatedUser> userDetailsCache;
+
+    public UserDetailsServiceImpl(CustomerRepository customerRepository, EmployeeRepository employeeRepository,
+                                  LoginIdentityRepository loginIdentityRepository, MeterRegistry meterRegistry,
+                                  @Value("${auth.user-details-cache.ttl-seconds:300}") long cacheTtlSeconds,
+                                  @Value("${auth.user-details-cache.max-size:10000}") long cacheMaxSize) {
         this.customerRepository = customerRepository;
         this.employeeRepository = employeeRepository;
+        this.loginIdentityRepository = loginIdentityRepository;
+        this.userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        // Exposes cache.gets{result=hit|miss}, cache.evictions, cache.size tagged cache=userDetails
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "userDetails");
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // 1. Try to find customer
-        Optional<Customer> customerOpt = customerRepository.findByEmail(username);
-        if (customerOpt.isPresent()) {
-            return buildCustomerUserDetails(customerOpt.get());
-        }
-
-        // 2. If no customer, try to find employee
-        Optional<Employee> employeeOpt = employeeRepository.findByUsername(username);
-        if (employeeOpt.isPresent()) {
-            return buildEmployeeUserDetails(employeeOpt.get());
-        }
+        return findAccount(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
 
-        // 3. If neither found, throw the exception, causing AuthenticationManager failure
-        throw new UsernameNotFoundException("User not found: " + username);
+    /**
+     * Resolves a login name to its customer or employee account. The login endpoints call this for
+     * their portal checks before authenticating, which warms the cache, so the AuthenticationManager's
+     * own lookup costs no extra query.
+     */
+    public Optional<AuthenticatedUser> findAccount(String username) {
+        // A null from the loader is not cached, so accounts created later are still found
+        return Optional.ofNullable(userDetailsCache.get(username, this::loadFromDatabase))
+                .map(AuthenticatedUser::copy);
     }
 
-    private UserDetails buildCustomerUserDetails(Customer customer) {
-        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(customer.getRole()));
-        return User.builder()
-                .username(customer.getEmail())
-                .password(customer.getPassword())
-                .authorities(authorities)
-                .disabled(false)  // Override to allow login with pending KYC
-                .build();
+    /**
+     * Called by DaoAuthenticationProvider after a successful login whose stored hash no longer matches
+     * the configured algorithm/cost; {@code newPassword} is the same password re-encoded. Only the hash
+     * column changes, so issued tokens stay valid. A failed write keeps the old (still valid) hash.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(user instanceof AuthenticatedUser account)) {
+            return user;
+        }
+        try {
+            if (account.isEmployee()) {
+                employeeRepository.updatePasswordHash(account.getUserId(), newPassword);
+            } else {
+                customerRepository.updatePasswordHash(account.getUserId(), newPassword);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Password hash upgrade failed for {}: {}", account.getUsername(), e.getMessage());
+            return user;
+        }
+        AuthenticatedUser upgraded = new AuthenticatedUser(account.getUsername(), newPassword,
+                account.getAuthorities(), account.getUserId(), account.getTokenVersion());
+        userDetailsCache.put(upgraded.getUsername(), upgraded);
+        log.debug("Upgraded password hash for {}", upgraded.getUsername());
+        return upgraded.copy();
     }
 
-    private UserDetails buildEmployeeUserDetails(Employee employee) {
-        // Access the role ENUM, get its name (e.g., BANK_STAFF), and prepend "ROLE_"
-        String authorityString = "ROLE_" + employee.getRole().name();
+    /**
+     * Drops the cached account once the transaction that changed its credentials (or created it) commits.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(AuthService.CredentialsChangedEvent event) {
+        userDetailsCache.invalidate(event.username());
+    }
 
-        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(authorityString));
+    private AuthenticatedUser loadFromDatabase(String username) {
+        return loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc(username)
+                .map(this::buildUserDetails)
+                .orElse(null);
+    }
 
-        return User.builder()
-                .username(employee.getUsername())
-                .password(employee.getPassword())
-                .authorities(authorities)
-                .build();
+    private AuthenticatedUser buildUserDetails(LoginIdentity identity) {
+        // Customers are always enabled so they can log in with pending KYC
+        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(identity.getAuthority()));
+        return new AuthenticatedUser(identity.getLogin(), identity.getPassword(), authorities,
+                identity.getAccountId(), identity.getTokenVersion());
     }
 
     @Override
@@ -3,9 +3,11 @@ package com.virtusa.starfinance.service.impl;
 import com.virtusa.starfinance.dto.NewEmployeeRequest;
 import com.virtusa.starfinance.entity.Employee;
 import com.virtusa.starfinance.repository.EmployeeRepository;
+import com.virtusa.starfinance.service.AuthService;
 import com.virtusa.starfinance.service.EmployeeCreationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +22,7 @@ public class EmployeeCreationServiceImpl implements EmployeeCreationService {
 
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Optional: Retain for explicit validation if preferred over enum-only check
     private static final List<String> VALID_ROLES = List.of("BANK_ADMIN", "BANK_STAFF");
@@ -62,6 +65,8 @@ public class EmployeeCreationServiceImpl implements EmployeeCreationService {
         // 6. Save and log success
         Employee savedEmployee = employeeRepository.save(newEmployee);
         log.info("New employee created successfully: username={}, role={}", savedEmployee.getUsername(), savedEmployee.getRole());
+        // Drop anything cached for this login name (resolved identity, unknown-account token checks)
+        eventPublisher.publishEvent(new AuthService.CredentialsChangedEvent(savedEmployee.getUsername()));
 
         return savedEmployee;
     }
@@ -0,0 +1,65 @@
+package com.virtusa.starfinance;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A {@link DataJpaTest} slice for code that manages its own transactions (batch loaders, block
+ * reservations, optimistic-lock races). Tests run outside the slice's rollback-only test transaction,
+ * so every write commits for real, as in production; rows are deleted after each test instead.
+ * Each context gets its own in-memory H2 in MySQL mode, as the upserts need it, with a lock timeout
+ * long enough for the concurrency tests.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ExtendWith(CommittingJpaTest.DeleteAllRows.class)
+public @interface CommittingJpaTest {
+
+    @AliasFor(annotation = DataJpaTest.class, attribute = "properties")
+    String[] properties() default {};
+
+    /**
+     * Empties every table after each test, except id_generator, whose rows Hibernate's pooled
+     * generators keep counting from.
+     */
+    class DeleteAllRows implements AfterEachCallback {
+
+        @Override
+        public void afterEach(ExtensionContext context) {
+            JdbcTemplate jdbcTemplate = SpringExtension.getApplicationContext(context).getBean(JdbcTemplate.class);
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            try {
+                for (String table : jdbcTemplate.queryForList("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                        + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'", String.class)) {
+                    if (!table.equalsIgnoreCase("id_generator")) {
+                        jdbcTemplate.execute("DELETE FROM \"" + table + "\"");
+                    }
+                }
+            } finally {
+                jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.virtusa.starfinance;
+
+import com.virtusa.starfinance.entity.Asset;
+import com.virtusa.starfinance.entity.Customer;
+import com.virtusa.starfinance.entity.LoanApplication;
+import com.virtusa.starfinance.repository.AssetRepository;
+import com.virtusa.starfinance.repository.CustomerRepository;
+import com.virtusa.starfinance.repository.LoanApplicationRepository;
+import com.virtusa.starfinance.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of the running application under the development logging defaults against the
+ * prod profile. One operation is an authenticated GET /api/customer/loans over HTTP, through the JWT
+ * filter, Spring Security, MVC and two JPA queries. Under dev every request writes DEBUG security and
+ * MVC lines, the SQL statement and its bind values; under prod it writes a sampled request line through
+ * the async appender.
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="RequestLoggingBenchmark -f 1"
+ * <p>
+ * Warms up longer than the other benchmarks: the whole request path has to be compiled first.
+ * Reads the main application properties from src/main/resources (run from backend/), with an in-memory
+ * H2 in place of MySQL. Console output goes to a temp file, so logging pays for real I/O without
+ * flooding the terminal; a log shipper reading stdout would cost more.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dspring.devtools.restart.enabled=false")
+@Threads(1)
+@State(Scope.Benchmark)
+public class RequestLoggingBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    @Param({"dev", "prod"})
+    public String logging;
+
+    @Param({"5"})
+    public int loans;
+
+    private PrintStream originalOut;
+    private Path consoleFile;
+    private ConfigurableApplicationContext context;
+    private URL loansUrl;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        consoleFile = Files.createTempFile("request-logging-" + logging, ".log");
+        System.setOut(new PrintStream(new FileOutputStream(consoleFile.toFile()), false));
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(StarFinanceApplication.class);
+        if (logging.equals("prod")) {
+            builder.profiles("prod");
+        }
+        context = builder.run(
+                "--spring.config.location=file:src/main/resources/",
+                "--spring.datasource.url=jdbc:h2:mem:request-logging;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--server.port=0");
+
+        Customer customer = new Customer();
+        customer.setName("Benchmark Customer");
+        customer.setEmail(EMAIL);
+        customer = context.getBean(CustomerRepository.class).save(customer);
+        AssetRepository assetRepository = context.getBean(AssetRepository.class);
+        LoanApplicationRepository loanRepository = context.getBean(LoanApplicationRepository.class);
+        for (int i = 0; i < loans; i++) {
+            Asset asset = new Asset();
+            asset.setCustomer(customer);
+            asset.setType(Asset.AssetType.TWENTY_TWO_CARAT);
+            asset.setWeight(BigDecimal.TEN);
+            asset = assetRepository.save(asset);
+
+            LoanApplication loan = new LoanApplication();
+            loan.setRid("GLN-BENCH" + i);
+            loan.setCustomer(customer);
+            loan.setAsset(asset);
+            loan.setAmount(BigDecimal.valueOf(50_000));
+            loanRepository.save(loan);
+        }
+
+        String token = context.getBean(JwtService.class).generateToken(new UsernamePasswordAuthenticationToken(
+                EMAIL, null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))), customer.getId(), 0);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        loansUrl = URI.create("http://localhost:" + port + "/api/customer/loans").toURL();
+        authorization = "Bearer " + token;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        System.out.close();
+        System.setOut(originalOut);
+        Files.deleteIfExists(consoleFile);
+    }
+
+    @Benchmark
+    public byte[] getLoans() throws IOException {
+        // Keep-alive connection reused across calls, as a browser or gateway would
+        HttpURLConnection connection = (HttpURLConnection) loansUrl.openConnection();
+        connection.setRequestProperty("Authorization", authorization);
+        if (connection.getResponseCode() != 200) {
+            throw new IllegalStateException("GET /api/customer/loans returned " + connection.getResponseCode());
+        }
+        try (InputStream body = connection.getInputStream()) {
+            return body.readAllBytes();
+        }
+    }
+}
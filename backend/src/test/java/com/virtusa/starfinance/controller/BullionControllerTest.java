@@ -0,0 +1,25 @@
+package com.virtusa.starfinance.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BullionControllerTest {
+
+    @Test
+    void acceptsGzip_ListedWithPositiveQuality_IsAccepted() {
+        assertTrue(BullionController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(BullionController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(BullionController.acceptsGzip("identity, *;q=0.1"));
+    }
+
+    @Test
+    void acceptsGzip_RefusedOrOnlyMatchingAsSubstring_IsNotAccepted() {
+        assertFalse(BullionController.acceptsGzip(null));
+        assertFalse(BullionController.acceptsGzip("gzip;q=0"));
+        assertFalse(BullionController.acceptsGzip("gzip;q=0.000, *"));
+        assertFalse(BullionController.acceptsGzip("x-gzip-experimental"));
+        assertFalse(BullionController.acceptsGzip("deflate, *;q=0"));
+        assertFalse(BullionController.acceptsGzip("gzip;q=high"));
+    }
+}
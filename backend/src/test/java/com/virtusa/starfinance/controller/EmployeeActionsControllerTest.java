@@ -1,23 +1,42 @@
 package com.virtusa.starfinance.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtusa.starfinance.dto.BulkLoanStatusUpdateRequest;
+import com.virtusa.starfinance.dto.BulkLoanStatusUpdateResponse;
 import com.virtusa.starfinance.dto.EvaluationDataRequest;
+import com.virtusa.starfinance.dto.KycReferenceImportSummary;
+import com.virtusa.starfinance.dto.LoanImportSummary;
+import com.virtusa.starfinance.dto.LoanNextActionsResponse;
 import com.virtusa.starfinance.dto.LoanStatusUpdateRequest;
 import com.virtusa.starfinance.dto.NewEmployeeRequest;
 import com.virtusa.starfinance.entity.Employee;
+import com.virtusa.starfinance.entity.LoanApplication;
 import com.virtusa.starfinance.repository.EmployeeRepository;
 import com.virtusa.starfinance.service.EmployeeCreationService;
 import com.virtusa.starfinance.service.LoanApplicationService;
+import com.virtusa.starfinance.service.KycReferenceImportService;
+import com.virtusa.starfinance.service.LoanImportService;
+import com.virtusa.starfinance.service.LoanStateMachine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.Reader;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -35,6 +54,12 @@ class EmployeeActionsControllerTest {
     @Mock
     private EmployeeCreationService employeeCreationService;
     @Mock
+    private LoanImportService loanImportService;
+    @Mock
+    private KycReferenceImportService kycReferenceImportService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
     private Authentication authentication;
 
     @InjectMocks
@@ -89,6 +114,93 @@ class EmployeeActionsControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
     }
 
+    @Test
+    void updateLoanStatuses_Success_Returns200WithPerItemResults() {
+        // ARRANGE
+        List<BulkLoanStatusUpdateRequest.Item> items = List.of(
+                new BulkLoanStatusUpdateRequest.Item(testRid, "VERIFIED", null),
+                new BulkLoanStatusUpdateRequest.Item("RID-MISSING", "VERIFIED", null));
+        BulkLoanStatusUpdateResponse result = new BulkLoanStatusUpdateResponse(1, 1, List.of(
+                new BulkLoanStatusUpdateResponse.ItemResult(testRid, BulkLoanStatusUpdateResponse.Outcome.UPDATED, null),
+                new BulkLoanStatusUpdateResponse.ItemResult("RID-MISSING", BulkLoanStatusUpdateResponse.Outcome.NOT_FOUND, "Not found")));
+        when(loanApplicationService.updateLoanStatuses(items)).thenReturn(result);
+
+        // ACT
+        ResponseEntity<BulkLoanStatusUpdateResponse> response = controller.updateLoanStatuses(new BulkLoanStatusUpdateRequest(items));
+
+        // ASSERT
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(result, response.getBody());
+    }
+
+    @Test
+    void importLoans_Csv_StreamsRejectedProgressAndCompletedLines() throws Exception {
+        // ARRANGE
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("customerEmail,purity,netWeight,amount\n".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(authentication.getName()).thenReturn("admin@starfinance.com");
+        when(loanImportService.importLoans(any(Reader.class), eq(LoanImportService.Format.CSV), eq("admin@starfinance.com"), any()))
+                .thenAnswer(invocation -> {
+                    LoanImportService.Listener listener = invocation.getArgument(3);
+                    listener.rowRejected(3, "GLN-OLD1", "Customer not found: x@example.com");
+                    listener.batchCommitted(new LoanImportSummary(2, 1, 1));
+                    return new LoanImportSummary(2, 1, 1);
+                });
+
+        // ACT
+        controller.importLoans("text/csv", request, response, authentication);
+
+        // ASSERT
+        assertEquals(200, response.getStatus());
+        assertEquals(List.of(
+                "{\"type\":\"REJECTED\",\"line\":3,\"rid\":\"GLN-OLD1\",\"message\":\"Customer not found: x@example.com\"}",
+                "{\"type\":\"PROGRESS\",\"processed\":2,\"imported\":1,\"failed\":1}",
+                "{\"type\":\"COMPLETED\",\"processed\":2,\"imported\":1,\"failed\":1}"),
+                response.getContentAsString().lines().toList());
+    }
+
+    @Test
+    void importLoans_BadCsvHeader_Throws400BeforeAnyOutput() throws Exception {
+        // ARRANGE
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("nope\n".getBytes(StandardCharsets.UTF_8));
+        when(authentication.getName()).thenReturn("admin@starfinance.com");
+        when(loanImportService.importLoans(any(Reader.class), any(), anyString(), any()))
+                .thenThrow(new IllegalArgumentException("CSV header is missing required column: customerEmail"));
+
+        // ACT & ASSERT
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                controller.importLoans("text/csv; charset=UTF-8", request, new MockHttpServletResponse(), authentication));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void importKycReferences_StreamsRejectedProgressAndCompletedLinesWithThroughput() throws Exception {
+        // ARRANGE
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("aadhaarNumber,panNumber,fullName\n".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(kycReferenceImportService.importReferences(any(ReadableByteChannel.class), eq(StandardCharsets.UTF_8), any()))
+                .thenAnswer(invocation -> {
+                    KycReferenceImportService.Listener listener = invocation.getArgument(2);
+                    listener.rowRejected(2, "Invalid PAN number: ABC");
+                    listener.batchCommitted(new KycReferenceImportSummary(4000, 3999, 1, 500));
+                    return new KycReferenceImportSummary(4000, 3999, 1, 800);
+                });
+
+        // ACT
+        controller.importKycReferences("text/csv", request, response);
+
+        // ASSERT
+        assertEquals(200, response.getStatus());
+        assertEquals(List.of(
+                "{\"type\":\"REJECTED\",\"line\":2,\"message\":\"Invalid PAN number: ABC\"}",
+                "{\"type\":\"PROGRESS\",\"processed\":4000,\"upserted\":3999,\"failed\":1,\"elapsedMillis\":500,\"rowsPerSecond\":8000}",
+                "{\"type\":\"COMPLETED\",\"processed\":4000,\"upserted\":3999,\"failed\":1,\"elapsedMillis\":800,\"rowsPerSecond\":5000}"),
+                response.getContentAsString().lines().toList());
+    }
+
     // --- submitEvaluationData Tests ---
 
     @Test
@@ -118,6 +230,45 @@ class EmployeeActionsControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
     }
 
+    @Test
+    void disburseLoan_ConcurrentUpdate_PropagatesFor409() {
+        // ARRANGE: another request disbursed the loan between our read and our write
+        doThrow(new ObjectOptimisticLockingFailureException(LoanApplication.class, 1L)).when(loanApplicationService).disburseLoan(testRid);
+
+        // ACT & ASSERT: left to GlobalExceptionHandler instead of being wrapped into a 500
+        assertThrows(OptimisticLockingFailureException.class, () -> controller.disburseLoan(testRid));
+    }
+
+    // --- getNextActions Tests ---
+
+    @Test
+    void getNextActions_Success_ReturnsAllowedStatuses() {
+        // ARRANGE
+        LoanNextActionsResponse actions = new LoanNextActionsResponse(testRid, LoanApplication.LoanStatus.PENDING,
+                List.of(LoanApplication.LoanStatus.VERIFIED, LoanApplication.LoanStatus.REJECTED_FOR_REVIEW));
+        when(loanApplicationService.getAllowedNextStatuses(testRid, LoanStateMachine.Actor.EMPLOYEE)).thenReturn(actions);
+
+        // ACT
+        ResponseEntity<LoanNextActionsResponse> response = controller.getNextActions(testRid);
+
+        // ASSERT
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(actions, response.getBody());
+    }
+
+    @Test
+    void getNextActions_LoanNotFound_Throws404() {
+        // ARRANGE
+        when(loanApplicationService.getAllowedNextStatuses(testRid, LoanStateMachine.Actor.EMPLOYEE))
+                .thenThrow(new NoSuchElementException("Not found"));
+
+        // ACT & ASSERT
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                controller.getNextActions(testRid));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
     // --- createNewEmployee Tests (Logic verification only) ---
 
     @Test
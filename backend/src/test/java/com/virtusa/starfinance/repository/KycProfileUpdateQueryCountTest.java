@@ -0,0 +1,125 @@
+package com.virtusa.starfinance.repository;
+
+import com.virtusa.starfinance.dto.KycRequest;
+import com.virtusa.starfinance.dto.KycResponse;
+import com.virtusa.starfinance.entity.Customer;
+import com.virtusa.starfinance.entity.KycReference;
+import com.virtusa.starfinance.service.KnNumberAllocator;
+import com.virtusa.starfinance.service.KycReferenceIndex;
+import com.virtusa.starfinance.service.KycVerificationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards the KYC form against full-entity writes: a re-submit costs one SELECT plus, only if a field
+ * changed, one UPDATE of the changed columns. KN block reservations go through JdbcTemplate and are
+ * not counted here; they happen once per kyc.kn.block-size verifications.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({KycVerificationService.class, KycReferenceIndex.class, KnNumberAllocator.class,
+        KycProfileUpdateQueryCountTest.Metrics.class})
+class KycProfileUpdateQueryCountTest {
+
+    private static final String EMAIL = "ravi@example.com";
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private KycVerificationService kycVerificationService;
+    @Autowired
+    private KycReferenceIndex kycReferenceIndex;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        KycReference reference = new KycReference();
+        reference.setAadhaarNumber("123456789012");
+        reference.setPanNumber("ABCDE1234A");
+        reference.setFullName("Ravi Kumar Sharma");
+        entityManager.persist(reference);
+
+        Customer customer = new Customer();
+        customer.setName("Ravi");
+        customer.setEmail(EMAIL);
+        entityManager.persist(customer);
+        entityManager.flush();
+        entityManager.clear();
+
+        kycReferenceIndex.load();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void verify_IssuesOnlyTheStatementsTheChangeNeeds() {
+        // ACT & ASSERT: first verification, identity and profile in one UPDATE
+        statistics.clear();
+        KycResponse verified = kycVerificationService.verify(EMAIL, request("Chennai"));
+        assertEquals("KYC verified successfully", verified.getMessage());
+        assertEquals(2, statistics.getPrepareStatementCount(), "first verification must be one SELECT and one UPDATE");
+
+        // ACT & ASSERT: unchanged re-submit writes nothing
+        statistics.clear();
+        KycResponse unchanged = kycVerificationService.verify(EMAIL, request("Chennai"));
+        assertEquals("Profile updated successfully", unchanged.getMessage());
+        assertEquals(verified.getKnNumber(), unchanged.getKnNumber());
+        assertEquals(1, statistics.getPrepareStatementCount(), "an unchanged profile must only be read");
+
+        // ACT & ASSERT: one changed field is one targeted UPDATE
+        statistics.clear();
+        kycVerificationService.verify(EMAIL, request("Pune"));
+        assertEquals(2, statistics.getPrepareStatementCount(), "a changed field must be one SELECT and one UPDATE");
+
+        entityManager.clear();
+        Customer stored = customerRepository.findByEmail(EMAIL).orElseThrow();
+        assertEquals("Pune", stored.getCity());
+        assertEquals("123456789012", stored.getAadhaar());
+        assertEquals(verified.getKnNumber(), stored.getKnNumber());
+        assertEquals(true, stored.getKycVerified());
+    }
+
+    private static KycRequest request(String city) {
+        KycRequest request = new KycRequest();
+        request.setFullName("Ravi Kumar Sharma");
+        request.setDateOfBirth("1990-01-01");
+        request.setGender("Male");
+        request.setMobileNumber("9876543210");
+        request.setAadhaarNumber("123456789012");
+        request.setPanNumber("ABCDE1234A");
+        request.setAddress("12 Anna Salai");
+        request.setCity(city);
+        request.setState("Tamil Nadu");
+        request.setPinCode("600002");
+        request.setOccupation("Engineer");
+        request.setIncome("1200000");
+        request.setBankAccountNumber("123456789");
+        request.setIfscCode("SBIN0001234");
+        request.setExistingLoans("0");
+        return request;
+    }
+}
@@ -0,0 +1,221 @@
+package com.virtusa.starfinance.repository;
+
+import com.virtusa.starfinance.CommittingJpaTest;
+import com.virtusa.starfinance.dto.BulkLoanStatusUpdateRequest;
+import com.virtusa.starfinance.dto.BulkLoanStatusUpdateResponse;
+import com.virtusa.starfinance.entity.Asset;
+import com.virtusa.starfinance.entity.Customer;
+import com.virtusa.starfinance.entity.LoanApplication;
+import com.virtusa.starfinance.service.LoanApplicationService;
+import com.virtusa.starfinance.service.LoanRidGenerator;
+import com.virtusa.starfinance.service.LoanStateMachine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent transitions on one loan must never both commit: the versioned UPDATE lets exactly one win.
+ */
+@CommittingJpaTest
+@Import({LoanApplicationService.class, LoanStateMachine.class, LoanRidGenerator.class})
+class LoanApplicationConcurrencyTest {
+
+    private static final String RID = "GLN-RACE0001";
+
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+    @Autowired
+    private AssetRepository assetRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setName("Ravi");
+        customer.setEmail("ravi@example.com");
+        customer = customerRepository.save(customer);
+
+        Asset asset = new Asset();
+        asset.setCustomer(customer);
+        asset.setType(Asset.AssetType.TWENTY_TWO_CARAT);
+        asset.setWeight(BigDecimal.TEN);
+        asset = assetRepository.save(asset);
+
+        LoanApplication loan = new LoanApplication();
+        loan.setRid(RID);
+        loan.setCustomer(customer);
+        loan.setAsset(asset);
+        loan.setAmount(BigDecimal.valueOf(50_000));
+        loan.setStatus(LoanApplication.LoanStatus.OFFER_ACCEPTED);
+        loanApplicationRepository.save(loan);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void staleRead_IsRejectedInsteadOfOverwritingTheWinner() throws Exception {
+        // ARRANGE: a second request reads OFFER_ACCEPTED, then stalls before writing
+        executor = Executors.newSingleThreadExecutor();
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch winnerCommitted = new CountDownLatch(1);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Future<?> stale = executor.submit(() -> tx.executeWithoutResult(status -> {
+            LoanApplication loan = loanApplicationRepository.findByRid(RID).orElseThrow();
+            read.countDown();
+            await(winnerCommitted);
+            loan.setStatus(LoanApplication.LoanStatus.DISBURSED);
+            loanApplicationRepository.save(loan);
+        }));
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+
+        // ACT
+        loanApplicationService.disburseLoan(RID);
+        winnerCommitted.countDown();
+
+        // ASSERT
+        Exception e = assertThrows(Exception.class, () -> stale.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(OptimisticLockingFailureException.class, e.getCause());
+        assertEquals(1L, loanApplicationRepository.findByRid(RID).orElseThrow().getVersion());
+    }
+
+    @Test
+    void concurrentDisbursements_ExactlyOneWins() throws Exception {
+        // ARRANGE
+        int threads = 16;
+        executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                await(start);
+                try {
+                    loanApplicationService.disburseLoan(RID);
+                    winners.incrementAndGet();
+                } catch (OptimisticLockingFailureException e) {
+                    conflicts.incrementAndGet();   // read OFFER_ACCEPTED, lost the versioned UPDATE
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();    // read DISBURSED after the winner committed
+                }
+            }));
+        }
+
+        // ACT
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        // ASSERT
+        assertEquals(1, winners.get());
+        assertEquals(threads - 1, conflicts.get() + rejected.get());
+        LoanApplication loan = loanApplicationRepository.findByRid(RID).orElseThrow();
+        assertEquals(LoanApplication.LoanStatus.DISBURSED, loan.getStatus());
+        assertEquals(1L, loan.getVersion());
+    }
+
+    @Test
+    void bulkUpdate_RowChangedAfterRead_ReportsConflictForThatItem() throws Exception {
+        // ARRANGE: another transaction holds the row mid-disbursement, so the bulk read sees version 0
+        executor = Executors.newFixedThreadPool(2);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Future<?> holder = executor.submit(() -> tx.executeWithoutResult(status -> {
+            LoanApplication loan = loanApplicationRepository.findByRid(RID).orElseThrow();
+            loan.setStatus(LoanApplication.LoanStatus.DISBURSED);
+            loanApplicationRepository.saveAndFlush(loan);
+            locked.countDown();
+            await(release);
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // ACT: the bulk UPDATE blocks on the row lock; let the holder commit once it is waiting
+        Future<BulkLoanStatusUpdateResponse> bulk = executor.submit(() -> loanApplicationService.updateLoanStatuses(
+                List.of(new BulkLoanStatusUpdateRequest.Item(RID, "DISBURSED", null))));
+        awaitBlockedSession();
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        BulkLoanStatusUpdateResponse response = bulk.get(10, TimeUnit.SECONDS);
+
+        // ASSERT
+        assertEquals(0, response.getUpdated());
+        assertEquals(BulkLoanStatusUpdateResponse.Outcome.CONFLICT, response.getResults().get(0).getOutcome());
+        assertEquals(1L, loanApplicationRepository.findByRid(RID).orElseThrow().getVersion());
+    }
+
+    @Test
+    void bulkUpdate_AppliesVersionedWriteAndRejectsRepeatTransition() {
+        // ACT
+        BulkLoanStatusUpdateResponse first = loanApplicationService.updateLoanStatuses(
+                List.of(new BulkLoanStatusUpdateRequest.Item(RID, "DISBURSED", null)));
+        BulkLoanStatusUpdateResponse second = loanApplicationService.updateLoanStatuses(
+                List.of(new BulkLoanStatusUpdateRequest.Item(RID, "DISBURSED", null)));
+
+        // ASSERT
+        assertEquals(1, first.getUpdated());
+        assertEquals(BulkLoanStatusUpdateResponse.Outcome.INVALID_TRANSITION, second.getResults().get(0).getOutcome());
+        LoanApplication loan = loanApplicationRepository.findByRid(RID).orElseThrow();
+        assertEquals(LoanApplication.LoanStatus.DISBURSED, loan.getStatus());
+        assertEquals(1L, loan.getVersion());
+    }
+
+    // Waits until H2 reports a session blocked on a row lock held by another session
+    private void awaitBlockedSession() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Integer blocked = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL", Integer.class);
+            if (blocked != null && blocked > 0) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Bulk update never blocked on the held row");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the other transaction");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
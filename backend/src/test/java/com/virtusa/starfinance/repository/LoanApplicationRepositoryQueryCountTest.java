@@ -0,0 +1,105 @@
+package com.virtusa.starfinance.repository;
+
+import com.virtusa.starfinance.dto.LoanDetailsResponse;
+import com.virtusa.starfinance.dto.LoanResponse;
+import com.virtusa.starfinance.entity.Asset;
+import com.virtusa.starfinance.entity.Customer;
+import com.virtusa.starfinance.entity.LoanApplication;
+import com.virtusa.starfinance.service.LoanApplicationService;
+import com.virtusa.starfinance.service.LoanRidGenerator;
+import com.virtusa.starfinance.service.LoanStateMachine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards the loan list/detail projections against N+1 regressions:
+ * the statement count must stay fixed no matter how many loans are returned.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({LoanApplicationService.class, LoanStateMachine.class, LoanRidGenerator.class})
+class LoanApplicationRepositoryQueryCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 10_000})
+    void loanListsAndDetails_IssueFixedStatementCount(int loanCount) {
+        // ARRANGE: one customer per loan so lazy loading would show up as one SELECT per row
+        Customer owner = null;
+        String firstRid = null;
+        for (int i = 0; i < loanCount; i++) {
+            Customer customer = new Customer();
+            customer.setName("Customer " + i);
+            customer.setEmail("customer" + i + "@example.com");
+            customer.setKnNumber("KN" + i);
+            entityManager.persist(customer);
+
+            Asset asset = new Asset();
+            asset.setCustomer(customer);
+            asset.setType(Asset.AssetType.TWENTY_TWO_CARAT);
+            asset.setWeight(BigDecimal.TEN);
+            entityManager.persist(asset);
+
+            LoanApplication loan = new LoanApplication();
+            loan.setRid("GLN-" + i);
+            loan.setCustomer(customer);
+            loan.setAsset(asset);
+            loan.setAmount(BigDecimal.valueOf(50_000));
+            entityManager.persist(loan);
+
+            if (i == 0) {
+                owner = customer;
+                firstRid = loan.getRid();
+            }
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // ACT & ASSERT: employee dashboard list
+        statistics.clear();
+        List<LoanResponse> all = loanApplicationService.getAllLoanApplications();
+        assertEquals(loanCount, all.size());
+        assertEquals(1, statistics.getPrepareStatementCount(), "getAllLoanApplications must be a single statement");
+
+        // ACT & ASSERT: customer list
+        statistics.clear();
+        List<LoanResponse> own = loanApplicationService.getLoansByCustomerId(owner.getId());
+        assertEquals(1, own.size());
+        assertEquals("Gold Loan - 22 Carat", own.get(0).getType());
+        assertEquals(1, statistics.getPrepareStatementCount(), "getLoansByCustomerId must be a single statement");
+
+        // ACT & ASSERT: detail view
+        statistics.clear();
+        LoanDetailsResponse details = loanApplicationService.getLoanDetailsByRid(firstRid);
+        assertEquals("KN0", details.getApplicant().getKnNumber());
+        assertEquals(1, statistics.getPrepareStatementCount(), "getLoanDetailsByRid must be a single statement");
+
+        // ACT & ASSERT: keyset queue page
+        statistics.clear();
+        loanApplicationService.getLoanQueue(null, null, null, null, 50);
+        assertEquals(1, statistics.getPrepareStatementCount(), "getLoanQueue must be a single statement");
+    }
+}
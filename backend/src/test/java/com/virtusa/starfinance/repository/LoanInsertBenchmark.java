@@ -0,0 +1,115 @@
+package com.virtusa.starfinance.repository;
+
+import com.virtusa.starfinance.entity.Asset;
+import com.virtusa.starfinance.entity.BankAccount;
+import com.virtusa.starfinance.entity.Customer;
+import com.virtusa.starfinance.entity.LoanApplication;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk loan creation cost with the previous IDENTITY ids against the pooled table-generated ids.
+ * One operation persists {@code loans} asset + loan pairs for one customer in a single transaction,
+ * the same two inserts createLoanApplication makes per loan. IDENTITY makes every persist() an
+ * immediate INSERT round trip; pooled ids let Hibernate defer them into JDBC batches.
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="LoanInsertBenchmark -f 1 -wi 2 -i 5"
+ * <p>
+ * Runs against in-memory H2, so the absolute gap understates a networked MySQL, where each avoided
+ * round trip is worth far more.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark/logback-benchmark.xml")
+@Threads(1)
+@State(Scope.Benchmark)
+public class LoanInsertBenchmark {
+
+    @Param({"identity", "pooled"})
+    public String ids;
+
+    @Param({"100"})
+    public int loans;
+
+    private SessionFactory sessionFactory;
+    private Long customerId;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:loan-insert-" + ids + ";MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .build();
+        MetadataSources sources = new MetadataSources(registry)
+                .addAnnotatedClass(Customer.class)
+                .addAnnotatedClass(Asset.class)
+                .addAnnotatedClass(LoanApplication.class)
+                .addAnnotatedClass(BankAccount.class);
+        if (ids.equals("identity")) {
+            sources.addResource("benchmark/identity-ids-orm.xml");
+        }
+        sessionFactory = sources.buildMetadata().buildSessionFactory();
+
+        Customer customer = new Customer();
+        customer.setName("Benchmark Customer");
+        customer.setEmail("bench@example.com");
+        sessionFactory.inTransaction(session -> session.persist(customer));
+        customerId = customer.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void createLoans() {
+        sessionFactory.inTransaction(session -> {
+            Customer customer = session.getReference(Customer.class, customerId);
+            for (int i = 0; i < loans; i++) {
+                createLoan(session, customer);
+            }
+        });
+    }
+
+    private void createLoan(Session session, Customer customer) {
+        Asset asset = new Asset();
+        asset.setCustomer(customer);
+        asset.setType(Asset.AssetType.TWENTY_TWO_CARAT);
+        asset.setWeight(BigDecimal.TEN);
+        session.persist(asset);
+
+        LoanApplication loan = new LoanApplication();
+        loan.setRid("GLN-BENCH" + sequence++);
+        loan.setCustomer(customer);
+        loan.setAsset(asset);
+        loan.setAmount(BigDecimal.valueOf(50_000));
+        session.persist(loan);
+    }
+}
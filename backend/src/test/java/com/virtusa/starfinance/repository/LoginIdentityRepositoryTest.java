@@ -0,0 +1,103 @@
+package com.virtusa.starfinance.repository;
+
+import com.virtusa.starfinance.entity.Customer;
+import com.virtusa.starfinance.entity.Employee;
+import com.virtusa.starfinance.entity.LoginIdentity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Login resolution must stay one statement regardless of which table holds the account.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class LoginIdentityRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private LoginIdentityRepository loginIdentityRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        persistCustomer("meera@example.com", "$2a$10$meera");
+        persistCustomer("ravi@example.com", "$2a$10$ravi");
+        persistEmployee("admin01", "$2a$10$admin", Employee.Role.BANK_ADMIN);
+        // Same name in both tables
+        persistEmployee("ravi@example.com", "$2a$10$staff", Employee.Role.BANK_STAFF);
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private void persistCustomer(String email, String password) {
+        Customer customer = new Customer();
+        customer.setName("Customer " + email);
+        customer.setEmail(email);
+        customer.setPassword(password);
+        entityManager.persist(customer);
+    }
+
+    private void persistEmployee(String username, String password, Employee.Role role) {
+        Employee employee = new Employee();
+        employee.setUsername(username);
+        employee.setPassword(password);
+        employee.setFullName("Staff " + username);
+        employee.setBranchName("Chennai");
+        employee.setRole(role);
+        entityManager.persist(employee);
+    }
+
+    @Test
+    void findFirstByLogin_Employee_ResolvesRoleInOneStatement() {
+        // ACT
+        Optional<LoginIdentity> identity = loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc("admin01");
+
+        // ASSERT
+        assertTrue(identity.isPresent());
+        assertEquals(LoginIdentity.AccountType.EMPLOYEE, identity.get().getAccountType());
+        assertEquals("ROLE_BANK_ADMIN", identity.get().getAuthority());
+        assertEquals("$2a$10$admin", identity.get().getPassword());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findFirstByLogin_NameInBothTables_PrefersEmployee() {
+        // ACT
+        Optional<LoginIdentity> identity = loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc("ravi@example.com");
+
+        // ASSERT
+        assertEquals(LoginIdentity.AccountType.EMPLOYEE, identity.orElseThrow().getAccountType());
+        assertEquals("ROLE_BANK_STAFF", identity.get().getAuthority());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findFirstByLogin_CustomerAndUnknown_OneStatementEach() {
+        // ACT
+        Optional<LoginIdentity> customer = loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc("meera@example.com");
+        Optional<LoginIdentity> unknown = loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc("nobody@example.com");
+
+        // ASSERT
+        assertEquals(LoginIdentity.AccountType.CUSTOMER, customer.orElseThrow().getAccountType());
+        assertEquals("ROLE_CUSTOMER", customer.get().getAuthority());
+        assertEquals("$2a$10$meera", customer.get().getPassword());
+        assertTrue(unknown.isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,60 @@
+package com.virtusa.starfinance.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-login hashing cost of each candidate security.password.* setting. Hashing is pure CPU work,
+ * so the single-threaded average time of matches() is the CPU time one login costs; divide the
+ * cores given to security.password.hashing-threads by it for the sustainable login rate.
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="PasswordHashBenchmark -f 1 -wi 2 -i 5"
+ * <p>
+ * Settings are "bcrypt-{cost}" or "argon2-{memoryKib}-{iterations}-{parallelism}".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "Branch-Opening-0900";
+
+    @Param({"bcrypt-8", "bcrypt-10", "bcrypt-12", "argon2-19456-2-1", "argon2-47104-1-1"})
+    public String setting;
+
+    private TunablePasswordEncoder encoder;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = setting.split("-");
+        encoder = switch (parts[0]) {
+            case "bcrypt" -> TunablePasswordEncoder.bcrypt(Integer.parseInt(parts[1]));
+            case "argon2" -> TunablePasswordEncoder.argon2(
+                    Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+            default -> throw new IllegalArgumentException("Unknown setting: " + setting);
+        };
+        storedHash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches(PASSWORD, storedHash);
+    }
+}
@@ -0,0 +1,47 @@
+package com.virtusa.starfinance.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TunablePasswordEncoderTest {
+
+    // Low costs keep the test fast; the logic does not depend on the magnitude
+    private final TunablePasswordEncoder bcrypt4 = TunablePasswordEncoder.bcrypt(4);
+    private final TunablePasswordEncoder bcrypt5 = TunablePasswordEncoder.bcrypt(5);
+    private final TunablePasswordEncoder argon2 = TunablePasswordEncoder.argon2(1024, 1, 1);
+
+    @Test
+    void upgradeEncoding_SameBCryptCost_IsFalse() {
+        assertFalse(bcrypt4.upgradeEncoding(bcrypt4.encode("secret123")));
+    }
+
+    @Test
+    void upgradeEncoding_DifferentBCryptCost_IsTrueInBothDirections() {
+        assertTrue(bcrypt5.upgradeEncoding(bcrypt4.encode("secret123")));
+        assertTrue(bcrypt4.upgradeEncoding(bcrypt5.encode("secret123")));
+    }
+
+    @Test
+    void upgradeEncoding_AlgorithmOrArgon2ParametersDiffer_IsTrue() {
+        String bcryptHash = bcrypt4.encode("secret123");
+        String argon2Hash = argon2.encode("secret123");
+
+        assertTrue(argon2.upgradeEncoding(bcryptHash));
+        assertTrue(bcrypt4.upgradeEncoding(argon2Hash));
+        assertFalse(argon2.upgradeEncoding(argon2Hash));
+        assertTrue(TunablePasswordEncoder.argon2(2048, 1, 1).upgradeEncoding(argon2Hash));
+    }
+
+    @Test
+    void matches_VerifiesEveryStoredFormatRegardlessOfTarget() {
+        String bcryptHash = bcrypt5.encode("secret123");
+        String argon2Hash = argon2.encode("secret123");
+
+        assertTrue(argon2.matches("secret123", bcryptHash));
+        assertTrue(bcrypt4.matches("secret123", argon2Hash));
+        assertFalse(bcrypt4.matches("wrong", argon2Hash));
+        assertFalse(bcrypt4.matches("secret123", ""));
+        assertFalse(bcrypt4.upgradeEncoding(""));
+    }
+}
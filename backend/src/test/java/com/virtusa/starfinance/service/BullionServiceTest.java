@@ -0,0 +1,257 @@
+package com.virtusa.starfinance.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.virtusa.starfinance.dto.GoldRateHistoryPoint;
+import com.virtusa.starfinance.dto.GoldRateHistoryResponse;
+import com.virtusa.starfinance.dto.GoldRateTickView;
+import com.virtusa.starfinance.entity.GoldRate;
+import com.virtusa.starfinance.entity.GoldRateHistory;
+import com.virtusa.starfinance.repository.GoldRateHistoryRepository;
+import com.virtusa.starfinance.repository.GoldRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BullionServiceTest {
+
+    @Mock
+    private GoldRateRepository goldRateRepository;
+    @Mock
+    private GoldRateHistoryRepository goldRateHistoryRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BullionService bullionService;
+
+    @BeforeEach
+    void setUp() {
+        bullionService = new BullionService(goldRateRepository, goldRateHistoryRepository, objectMapper, eventPublisher, 100);
+    }
+
+    @Test
+    void getAllRates_RepeatedCalls_HitDatabaseOnce() {
+        // ARRANGE
+        when(goldRateRepository.findAll()).thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8000.00"))));
+
+        // ACT
+        bullionService.getAllRates();
+        bullionService.getAllRates();
+        var rates = bullionService.getAllRates();
+
+        // ASSERT
+        assertEquals(1, rates.size());
+        assertEquals(8000.0, rates.get(0).getRatePerGram());
+        verify(goldRateRepository, times(1)).findAll();
+    }
+
+    @Test
+    void refreshRates_UnchangedRates_KeepsSnapshotAndEtag() {
+        // ARRANGE
+        when(goldRateRepository.findAll()).thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8000.00"))));
+        BullionService.RateSnapshot first = bullionService.refreshRates();
+
+        // ACT
+        BullionService.RateSnapshot second = bullionService.refreshRates();
+
+        // ASSERT
+        assertSame(first, second);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void refreshRates_ChangedRate_SwapsSnapshotAndEtag() {
+        // ARRANGE
+        when(goldRateRepository.findAll())
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8000.00"))))
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8050.00"))));
+        BullionService.RateSnapshot first = bullionService.refreshRates();
+
+        // ACT
+        BullionService.RateSnapshot second = bullionService.refreshRates();
+
+        // ASSERT
+        assertNotEquals(first.etag(), second.etag());
+        assertSame(second, bullionService.getSnapshot());
+        assertEquals(8050.0, bullionService.getAllRates().get(0).getRatePerGram());
+        verify(eventPublisher).publishEvent(new BullionService.RateSnapshotUpdatedEvent(second));
+    }
+
+    @Test
+    void refreshRates_OverlappedByNewerRefresh_DoesNotRestoreStaleRates() {
+        // ARRANGE: while one refresh holds the 8050 rows, a post-commit refresh reads and swaps in 8100
+        when(goldRateRepository.findAll())
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8000.00"))))
+                .thenAnswer(invocation -> {
+                    bullionService.refreshRates();
+                    return List.of(new GoldRate(1, "24 Karat", new BigDecimal("8050.00")));
+                })
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8100.00"))));
+        bullionService.refreshRates();
+
+        // ACT
+        BullionService.RateSnapshot result = bullionService.refreshRates();
+
+        // ASSERT
+        assertEquals(8100.0, result.rates().get(0).getRatePerGram());
+        assertSame(result, bullionService.getSnapshot());
+        verify(eventPublisher, times(1)).publishEvent(new BullionService.RateSnapshotUpdatedEvent(result));
+    }
+
+    @Test
+    void refreshRates_OlderReadWinsTheSwap_RetriesAndEndsOnNewerRates() {
+        // ARRANGE: while one refresh holds the 8100 rows, another that read the older 8050 swaps first
+        when(goldRateRepository.findAll())
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8000.00"))))
+                .thenAnswer(invocation -> {
+                    bullionService.refreshRates();
+                    return List.of(new GoldRate(1, "24 Karat", new BigDecimal("8100.00")));
+                })
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8050.00"))))
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8100.00"))));
+        bullionService.refreshRates();
+
+        // ACT
+        BullionService.RateSnapshot result = bullionService.refreshRates();
+
+        // ASSERT
+        assertEquals(8100.0, result.rates().get(0).getRatePerGram());
+        assertSame(result, bullionService.getSnapshot());
+        verify(goldRateRepository, times(4)).findAll();
+        verify(eventPublisher, times(1)).publishEvent(new BullionService.RateSnapshotUpdatedEvent(result));
+    }
+
+    @Test
+    void refreshRates_PreEncodesJsonAndGzipPayloads() throws IOException {
+        // ARRANGE
+        when(goldRateRepository.findAll()).thenReturn(List.of(new GoldRate(1, "22 Karat", new BigDecimal("6600.00"))));
+
+        // ACT
+        BullionService.RateSnapshot snapshot = bullionService.refreshRates();
+
+        // ASSERT
+        String expected = "[{\"karat\":\"22 Karat\",\"ratePerGram\":6600.0}]";
+        assertEquals(expected, new String(snapshot.json(), StandardCharsets.UTF_8));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzipJson()))) {
+            assertArrayEquals(snapshot.json(), in.readAllBytes());
+        }
+        assertNotEquals(snapshot.etag(), snapshot.gzipEtag());
+
+        // Serving the snapshot again must not re-run Jackson
+        bullionService.getSnapshot();
+        verify(objectMapper, times(1)).writeValueAsBytes(any());
+    }
+
+    @Test
+    void refreshRates_RecordsHistoryOnlyForChangedKarats() {
+        // ARRANGE
+        when(goldRateRepository.findAll())
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8000.00")),
+                        new GoldRate(2, "22 Karat", new BigDecimal("6600.00"))))
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8000.00")),
+                        new GoldRate(2, "22 Karat", new BigDecimal("6650.00"))));
+        bullionService.refreshRates();
+
+        // ACT
+        bullionService.refreshRates();
+
+        // ASSERT: baseline for both karats, then a single tick for the one that moved
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<GoldRateHistory>> captor = ArgumentCaptor.forClass(List.class);
+        verify(goldRateHistoryRepository, times(2)).saveAll(captor.capture());
+        assertEquals(2, captor.getAllValues().get(0).size());
+        List<GoldRateHistory> changed = captor.getAllValues().get(1);
+        assertEquals(1, changed.size());
+        assertEquals("22 Karat", changed.get(0).getKaratLabel());
+        assertEquals(new BigDecimal("6650.00"), changed.get(0).getRatePerGram());
+    }
+
+    @Test
+    void refreshRates_AfterRestartWithUnchangedRate_DoesNotDuplicateHistory() {
+        // ARRANGE
+        when(goldRateRepository.findAll()).thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8000.00"))));
+        when(goldRateHistoryRepository.findLatestTicks(eq("24 Karat"), any())).thenReturn(List.of(
+                new GoldRateTickView(1L, LocalDateTime.now().minusDays(1), new BigDecimal("8000.00"))));
+
+        // ACT
+        bullionService.refreshRates();
+
+        // ASSERT
+        verify(goldRateHistoryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void getRateHistory_RangeInsideWindow_DownsamplesFromMemory() {
+        // ARRANGE
+        when(goldRateRepository.findAll())
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8000.00"))))
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("8100.00"))))
+                .thenReturn(List.of(new GoldRate(1, "24 Karat", new BigDecimal("7950.00"))));
+        bullionService.refreshRates();
+        bullionService.refreshRates();
+        bullionService.refreshRates();
+
+        // ACT
+        GoldRateHistoryResponse history = bullionService.getRateHistory("24 Karat",
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1), 1);
+
+        // ASSERT
+        assertEquals(1, history.getPoints().size());
+        GoldRateHistoryPoint point = history.getPoints().get(0);
+        assertEquals(7950.0, point.getMin());
+        assertEquals(8100.0, point.getMax());
+        assertEquals(8016.67, point.getAvg());
+        assertEquals(3, point.getSamples());
+        verify(goldRateHistoryRepository, never()).findTicks(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getRateHistory_RangeOutsideWindow_ReadsHistoryTableIntoBuckets() {
+        // ARRANGE
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(goldRateHistoryRepository.findTicks(eq("22 Karat"), eq(from), eq(to), isNull(), isNull(), any()))
+                .thenReturn(List.of(
+                        new GoldRateTickView(1L, from.plusHours(1), new BigDecimal("6500.00")),
+                        new GoldRateTickView(2L, from.plusHours(2), new BigDecimal("6520.00")),
+                        new GoldRateTickView(3L, from.plusDays(7), new BigDecimal("6700.00"))));
+
+        // ACT: 5 buckets of two days each
+        GoldRateHistoryResponse history = bullionService.getRateHistory("22 Karat", from, to, 5);
+
+        // ASSERT
+        assertEquals(2 * 24 * 3600, history.getBucketSeconds());
+        assertEquals(2, history.getPoints().size());
+        assertEquals(from, history.getPoints().get(0).getBucketStart());
+        assertEquals(6500.0, history.getPoints().get(0).getMin());
+        assertEquals(6520.0, history.getPoints().get(0).getMax());
+        assertEquals(6510.0, history.getPoints().get(0).getAvg());
+        assertEquals(from.plusDays(6), history.getPoints().get(1).getBucketStart());
+        assertEquals(1, history.getPoints().get(1).getSamples());
+    }
+
+    @Test
+    void getRateHistory_FromNotBeforeTo_ThrowsIllegalArgumentException() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThrows(IllegalArgumentException.class,
+                () -> bullionService.getRateHistory("24 Karat", now, now.minusDays(1), null));
+    }
+}
@@ -0,0 +1,15 @@
+package com.virtusa.starfinance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvLineTest {
+
+    @Test
+    void split_QuotedFields_KeepCommasAndEscapedQuotes() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), CsvLine.split("a,\"b,c\",\"say \"\"hi\"\"\","));
+    }
+}
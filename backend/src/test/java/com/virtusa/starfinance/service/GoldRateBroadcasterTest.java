@@ -0,0 +1,152 @@
+package com.virtusa.starfinance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GoldRateBroadcasterTest {
+
+    @Mock
+    private BullionService bullionService;
+
+    private GoldRateBroadcaster broadcaster;
+
+    private final CountDownLatch stalledSocket = new CountDownLatch(1);
+
+    private final BullionService.RateSnapshot snapshot = new BullionService.RateSnapshot(
+            List.of(), "[]".getBytes(StandardCharsets.UTF_8), new byte[0], "\"abc\"", "\"abc-gzip\"");
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new GoldRateBroadcaster(bullionService, 60_000, 2, 3);
+        when(bullionService.getSnapshot()).thenReturn(snapshot);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stalledSocket.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void register_SendsCurrentSnapshot_UnlessLastEventIdMatches() throws InterruptedException {
+        // ARRANGE
+        RecordingEmitter fresh = new RecordingEmitter(null);
+        RecordingEmitter reconnected = new RecordingEmitter(null);
+
+        // ACT
+        broadcaster.register(fresh, null);
+        broadcaster.register(reconnected, "abc");
+
+        // ASSERT
+        assertTrue(fresh.firstSend.await(5, TimeUnit.SECONDS));
+        assertEquals(1, fresh.sends.get());
+        assertEquals(0, reconnected.sends.get());
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void register_AtCapacity_ThrowsIllegalStateException() {
+        broadcaster.register(new RecordingEmitter(null), "abc");
+        broadcaster.register(new RecordingEmitter(null), "abc");
+
+        SseEmitter third = new RecordingEmitter(null);
+        assertThrows(IllegalStateException.class, () -> broadcaster.register(third, "abc"));
+    }
+
+    @Test
+    void heartbeat_BlockedConsumer_IsConflatedThenEvicted() throws InterruptedException {
+        // ARRANGE: first send blocks until released, like a client that stopped reading
+        RecordingEmitter slow = new RecordingEmitter(stalledSocket);
+        broadcaster.register(slow, null);
+        assertTrue(slow.firstSend.await(5, TimeUnit.SECONDS));
+
+        // ACT: the first frame waits as pending, each later one is a miss, the third miss evicts
+        broadcaster.sendHeartbeat();
+        broadcaster.sendHeartbeat();
+        broadcaster.sendHeartbeat();
+        assertEquals(1, broadcaster.getSubscriberCount());
+        broadcaster.sendHeartbeat();
+
+        // ASSERT
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(1, slow.sends.get());
+        stalledSocket.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS), "Evicted emitter must be completed");
+    }
+
+    @Test
+    void onSnapshotUpdated_WhileHeartbeatInFlight_DeliversRatesOnceSocketFrees() throws InterruptedException {
+        // ARRANGE: up to date on subscribe, then a heartbeat send stalls
+        RecordingEmitter subscriber = new RecordingEmitter(stalledSocket);
+        broadcaster.register(subscriber, "abc");
+        broadcaster.sendHeartbeat();
+        assertTrue(subscriber.firstSend.await(5, TimeUnit.SECONDS));
+
+        // ACT
+        broadcaster.onSnapshotUpdated(new BullionService.RateSnapshotUpdatedEvent(new BullionService.RateSnapshot(
+                List.of(), "[1]".getBytes(StandardCharsets.UTF_8), new byte[0], "\"def\"", "\"def-gzip\"")));
+        broadcaster.sendHeartbeat();
+        stalledSocket.countDown();
+
+        // ASSERT: the later heartbeat does not displace the pending rates frame
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = subscriber.frames.poll(5, TimeUnit.SECONDS);
+        Set<ResponseBodyEmitter.DataWithMediaType> rates = subscriber.frames.poll(5, TimeUnit.SECONDS);
+        assertNotNull(rates, "Rates frame queued behind the heartbeat must be sent");
+        assertTrue(heartbeat.iterator().next().getData().toString().contains("heartbeat"));
+        assertTrue(rates.iterator().next().getData().toString().contains("id:def"));
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    /**
+     * SseEmitter that counts sends and can block inside send to simulate a stalled socket.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch blockUntil;
+        private final CountDownLatch firstSend = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicInteger sends = new AtomicInteger();
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> frames = new LinkedBlockingQueue<>();
+
+        private RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            sends.incrementAndGet();
+            frames.add(items);
+            firstSend.countDown();
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
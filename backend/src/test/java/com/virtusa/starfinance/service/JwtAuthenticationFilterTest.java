@@ -0,0 +1,98 @@
+package com.virtusa.starfinance.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @InjectMocks
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    private final Claims claims = new DefaultClaims(Map.of("sub", "staff01"));
+    private final List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_BANK_STAFF"));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    @Test
+    void doFilter_ValidCurrentToken_BuildsPrincipalFromClaims() throws Exception {
+        // ARRANGE
+        when(jwtService.parseVerifiedClaims("token")).thenReturn(Optional.of(claims));
+        when(jwtService.getAuthorities(claims)).thenReturn(authorities);
+        when(jwtService.getTokenVersion(claims)).thenReturn(1);
+        when(jwtService.getUserId(claims)).thenReturn(42L);
+        when(tokenVersionService.isCurrent("staff01", true, 1)).thenReturn(true);
+
+        // ACT
+        jwtAuthenticationFilter.doFilter(bearer("token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // ASSERT
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("staff01", authentication.getName());
+        assertEquals(new JwtPrincipal("staff01", 42L), authentication.getPrincipal());
+        assertEquals(authorities, List.copyOf(authentication.getAuthorities()));
+    }
+
+    @Test
+    void doFilter_RevokedToken_LeavesRequestUnauthenticated() throws Exception {
+        // ARRANGE
+        when(jwtService.parseVerifiedClaims("token")).thenReturn(Optional.of(claims));
+        when(jwtService.getAuthorities(claims)).thenReturn(authorities);
+        when(jwtService.getTokenVersion(claims)).thenReturn(0);
+        when(tokenVersionService.isCurrent("staff01", true, 0)).thenReturn(false);
+
+        // ACT
+        jwtAuthenticationFilter.doFilter(bearer("token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // ASSERT
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_InvalidToken_SkipsRevocationCheck() throws Exception {
+        // ARRANGE
+        when(jwtService.parseVerifiedClaims("bad")).thenReturn(Optional.empty());
+
+        // ACT
+        jwtAuthenticationFilter.doFilter(bearer("bad"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // ASSERT
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(tokenVersionService);
+    }
+}
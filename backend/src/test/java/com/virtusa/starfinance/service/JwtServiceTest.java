@@ -0,0 +1,105 @@
+package com.virtusa.starfinance.service;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "k7pQ9mX2vR4tY6uN8jL5hB3dF1gE0iOaC";
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "ravi@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+
+    private JwtService newJwtService(String secret, long expirationMs) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", secret);
+        ReflectionTestUtils.setField(jwtService, "expiration", expirationMs);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 100L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    @Test
+    void parseVerifiedClaims_ValidToken_ReturnsClaimsAndCachesThem() {
+        // ARRANGE
+        JwtService jwtService = newJwtService(SECRET, 60_000);
+        String token = jwtService.generateToken(authentication);
+
+        // ACT
+        Optional<Claims> first = jwtService.parseVerifiedClaims(token);
+        Optional<Claims> second = jwtService.parseVerifiedClaims(token);
+
+        // ASSERT
+        assertTrue(first.isPresent());
+        assertEquals("ravi@example.com", first.get().getSubject());
+        assertEquals("ROLE_CUSTOMER", first.get().get("authorities"));
+        // Second lookup is served from the cache, not a fresh parse
+        assertSame(first.get(), second.get());
+    }
+
+    @Test
+    void parseVerifiedClaims_TamperedOrForeignToken_ReturnsEmpty() {
+        // ARRANGE
+        JwtService jwtService = newJwtService(SECRET, 60_000);
+        String token = jwtService.generateToken(authentication);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String foreign = newJwtService("another-secret-that-is-long-enough-for-hs256", 60_000).generateToken(authentication);
+
+        // ACT & ASSERT
+        assertTrue(jwtService.parseVerifiedClaims(tampered).isEmpty());
+        assertTrue(jwtService.parseVerifiedClaims(foreign).isEmpty());
+        assertTrue(jwtService.parseVerifiedClaims("not-a-jwt").isEmpty());
+        assertFalse(jwtService.validateToken(tampered));
+    }
+
+    @Test
+    void parseVerifiedClaims_ExpiredToken_ReturnsEmpty() {
+        // ARRANGE
+        JwtService jwtService = newJwtService(SECRET, -1_000);
+        String token = jwtService.generateToken(authentication);
+
+        // ACT & ASSERT
+        assertTrue(jwtService.parseVerifiedClaims(token).isEmpty());
+    }
+
+    @Test
+    void parseVerifiedClaims_CachedTokenPastExpiry_IsNoLongerAccepted() throws InterruptedException {
+        // ARRANGE
+        JwtService jwtService = newJwtService(SECRET, 1_000);
+        String token = jwtService.generateToken(authentication);
+        assertTrue(jwtService.parseVerifiedClaims(token).isPresent());
+
+        // ACT
+        Thread.sleep(2_100);
+
+        // ASSERT
+        assertTrue(jwtService.parseVerifiedClaims(token).isEmpty());
+    }
+
+    @Test
+    void generateToken_AuthenticatedUser_EmbedsUserIdAndTokenVersion() {
+        // ARRANGE
+        JwtService jwtService = newJwtService(SECRET, 60_000);
+        AuthenticatedUser user = new AuthenticatedUser("staff01", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_BANK_STAFF")), 42L, 3);
+        Authentication login = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+
+        // ACT
+        Claims claims = jwtService.parseVerifiedClaims(jwtService.generateToken(login)).orElseThrow();
+
+        // ASSERT
+        assertEquals("staff01", claims.getSubject());
+        assertEquals(42L, jwtService.getUserId(claims));
+        assertEquals(3, jwtService.getTokenVersion(claims));
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_BANK_STAFF")), jwtService.getAuthorities(claims));
+    }
+}
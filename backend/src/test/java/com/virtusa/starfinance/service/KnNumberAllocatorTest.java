@@ -0,0 +1,125 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.CommittingJpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two allocators stand in for two application nodes sharing sequence_block.
+ */
+@CommittingJpaTest
+class KnNumberAllocatorTest {
+
+    private static final int BLOCK_SIZE = 7;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nextKnNumber_TwoNodesManyThreads_AllUniqueAndValid() throws Exception {
+        // ARRANGE: a small block forces frequent reservations from both nodes
+        KnNumberAllocator nodeA = new KnNumberAllocator(jdbcTemplate, transactionManager, BLOCK_SIZE);
+        KnNumberAllocator nodeB = new KnNumberAllocator(jdbcTemplate, transactionManager, BLOCK_SIZE);
+        int threads = 8;
+        int perThread = 250;
+        executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            KnNumberAllocator allocator = t % 2 == 0 ? nodeA : nodeB;
+            futures.add(executor.submit(() -> {
+                start.await(5, TimeUnit.SECONDS);
+                List<String> issued = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    issued.add(allocator.nextKnNumber());
+                }
+                return issued;
+            }));
+        }
+
+        // ACT
+        start.countDown();
+        Set<String> all = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            all.addAll(future.get(30, TimeUnit.SECONDS));
+        }
+
+        // ASSERT: no duplicates, every number checks out, and at most one partly used plus one
+        // reserved-ahead block per node
+        int total = threads * perThread;
+        assertEquals(total, all.size());
+        assertTrue(all.stream().allMatch(KnNumberAllocator::isValid));
+        long reserved = jdbcTemplate.queryForObject(
+                "SELECT next_value FROM sequence_block WHERE name = 'KN'", Long.class) - 1;
+        assertEquals(0, reserved % BLOCK_SIZE);
+        assertTrue(reserved >= total && reserved <= total + 4L * BLOCK_SIZE, "reserved " + reserved);
+    }
+
+    @Test
+    void nextKnNumber_NextBlockReservedAhead_CrossesTheBoundaryWithoutTheDatabase() throws Exception {
+        // ARRANGE: handing out serial 6 of the 7-number block [1, 8) reserves [8, 15) in the background
+        KnNumberAllocator allocator = new KnNumberAllocator(jdbcTemplate, transactionManager, BLOCK_SIZE);
+        assertEquals("KN0000000000018", allocator.nextKnNumber());
+        for (int i = 2; i <= 6; i++) {
+            allocator.nextKnNumber();
+        }
+        awaitReservedUpTo(1 + 2 * BLOCK_SIZE);
+
+        // ACT: drop the row; the rest of this block and the start of the next still come from memory
+        jdbcTemplate.update("DELETE FROM sequence_block");
+        allocator.nextKnNumber();
+        String firstOfNextBlock = allocator.nextKnNumber();
+
+        // ASSERT
+        assertEquals("KN000000000008" + KnNumberAllocator.luhnCheckDigit("000000000008"), firstOfNextBlock);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sequence_block", Integer.class));
+        allocator.shutdown();
+    }
+
+    @Test
+    void isValid_SingleDigitTypoOrNeighbourSwap_IsRejected() {
+        // ARRANGE
+        String kn = "KN" + "000012345678" + KnNumberAllocator.luhnCheckDigit("000012345678");
+
+        // ACT & ASSERT
+        assertTrue(KnNumberAllocator.isValid(kn));
+        assertFalse(KnNumberAllocator.isValid(kn.replace("12345678", "12345679")));
+        assertFalse(KnNumberAllocator.isValid(kn.replace("12345678", "12354678")));
+        assertFalse(KnNumberAllocator.isValid("KN17290000000001234"));
+        assertFalse(KnNumberAllocator.isValid(null));
+    }
+
+    private void awaitReservedUpTo(long nextValue) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbcTemplate.queryForObject("SELECT next_value FROM sequence_block WHERE name = 'KN'", Long.class) < nextValue) {
+            assertTrue(System.nanoTime() < deadline, "next block was not reserved ahead");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.CommittingJpaTest;
+import com.virtusa.starfinance.dto.KycReferenceImportSummary;
+import com.virtusa.starfinance.entity.KycReference;
+import com.virtusa.starfinance.repository.KycReferenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@CommittingJpaTest
+class KycReferenceImportServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private KycReferenceRepository kycReferenceRepository;
+
+    private final KycReferenceIndex kycReferenceIndex = mock(KycReferenceIndex.class);
+    private final RecordingListener listener = new RecordingListener();
+    private KycReferenceImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new KycReferenceImportService(kycReferenceRepository, jdbcTemplate, kycReferenceIndex, transactionManager, 2);
+        KycReference existing = new KycReference();
+        existing.setAadhaarNumber("123456789012");
+        existing.setPanNumber("ABCDE1234A");
+        existing.setFullName("Ravi Sharma");
+        kycReferenceRepository.save(existing);
+    }
+
+    @Test
+    void importReferences_UpsertsValidRowsAndReportsEachRejectedLine() throws Exception {
+        // ARRANGE: batches of 2; line 6 claims the PAN that line 2 keeps for its Aadhaar
+        String csv = """
+                aadhaar_number,pan_number,full_name
+                123456789012,ABCDE1234A,Ravi Kumar Sharma
+                234567890123,fghij5678b,Priya Singh Varma
+                34567890123,KLMNO9012C,Too Short
+                345678901234,KLMNO9012C,Amitesh Dasgupta
+                456789012345,ABCDE1234A,Duplicate Pan
+
+                567890123456,UVWXY7890E,
+                """;
+
+        // ACT
+        KycReferenceImportSummary summary = importService.importReferences(channel(csv), StandardCharsets.UTF_8, listener);
+
+        // ASSERT
+        assertEquals(6, summary.processed());
+        assertEquals(3, summary.upserted());
+        assertEquals(3, summary.failed());
+        assertEquals("4 Invalid Aadhaar number: 34567890123", listener.rejected.get(0));
+        assertEquals("6 PAN number already belongs to another Aadhaar number: ABCDE1234A", listener.rejected.get(1));
+        assertEquals("8 fullName is required.", listener.rejected.get(2));
+        assertEquals(List.of(2L, 3L), listener.progress.stream().map(KycReferenceImportSummary::upserted).toList());
+
+        assertEquals(3, kycReferenceRepository.count());
+        assertEquals("Ravi Kumar Sharma",
+                kycReferenceRepository.findByAadhaarNumberAndPanNumber("123456789012", "ABCDE1234A").orElseThrow().getFullName());
+        assertTrue(kycReferenceRepository.findByAadhaarNumberAndPanNumber("234567890123", "FGHIJ5678B").isPresent());
+        verify(kycReferenceIndex).reload();
+    }
+
+    @Test
+    void importReferences_HeaderMissingRequiredColumn_IsRejectedBeforeAnyWrite() {
+        // ACT & ASSERT
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> importService.importReferences(
+                channel("aadhaarNumber,fullName\n234567890123,Priya\n"), StandardCharsets.UTF_8, listener));
+        assertEquals("CSV header is missing required column: panNumber", e.getMessage());
+        assertEquals(1, kycReferenceRepository.count());
+        verifyNoInteractions(kycReferenceIndex);
+    }
+
+    private static ReadableByteChannel channel(String csv) {
+        return Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class RecordingListener implements KycReferenceImportService.Listener {
+        final List<String> rejected = new ArrayList<>();
+        final List<KycReferenceImportSummary> progress = new ArrayList<>();
+
+        @Override
+        public void rowRejected(long line, String message) {
+            rejected.add(line + " " + message);
+        }
+
+        @Override
+        public void batchCommitted(KycReferenceImportSummary summary) {
+            progress.add(summary);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.dto.KycReferenceKeyView;
+import com.virtusa.starfinance.entity.KycReferenceChangeListener.Change;
+import com.virtusa.starfinance.entity.KycReferenceChangeListener.KycReferenceChangedEvent;
+import com.virtusa.starfinance.repository.KycReferenceRepository;
+import com.virtusa.starfinance.service.KycReferenceIndex.Match;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KycReferenceIndexTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    @Mock
+    private KycReferenceRepository kycReferenceRepository;
+
+    private final List<KycReferenceKeyView> rows = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private KycReferenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new KycReferenceIndex(kycReferenceRepository, meterRegistry, PAGE_SIZE, 0.01, Long.MAX_VALUE);
+        // Serves the stored rows in keyset pages, like the JPQL query
+        lenient().when(kycReferenceRepository.findKeysAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return rows.stream().filter(row -> row.id() > afterId).limit(page.getPageSize()).toList();
+        });
+        rows.add(new KycReferenceKeyView(1L, "123456789012", "ABCDE1234A"));
+        rows.add(new KycReferenceKeyView(2L, "234567890123", "FGHIJ5678B"));
+        rows.add(new KycReferenceKeyView(3L, "345678901234", "KLMNO9012C"));
+    }
+
+    @Test
+    void lookup_BeforeLoad_IsUnavailable() {
+        assertEquals(Match.UNAVAILABLE, index.lookup("123456789012", "ABCDE1234A"));
+        verifyNoInteractions(kycReferenceRepository);
+    }
+
+    @Test
+    void lookup_AfterLoad_MatchesOnlyStoredPairs() {
+        // ACT
+        index.load();
+
+        // ASSERT: all rows were read in pages of two
+        verify(kycReferenceRepository, times(2)).findKeysAfter(anyLong(), any(Pageable.class));
+        assertEquals(Match.VERIFIED, index.lookup("123456789012", "ABCDE1234A"));
+        assertEquals(Match.VERIFIED, index.lookup("345678901234", "KLMNO9012C"));
+        assertEquals(Match.NOT_FOUND, index.lookup("123456789012", "FGHIJ5678B"));
+        assertEquals(Match.NOT_FOUND, index.lookup("999999999999", "ABCDE1234A"));
+        assertEquals(Match.NOT_FOUND, index.lookup("12345678901X", "ABCDE1234A"));
+        assertEquals(3.0, meterRegistry.get("kyc.index.size").gauge().value());
+        assertEquals(2.0, meterRegistry.get("kyc.index.lookups").tag("result", "verified").counter().count());
+    }
+
+    @Test
+    void lookup_ReferenceRowNotInPackableShape_UnpackableInputFallsBackToDatabase() {
+        // ARRANGE
+        rows.add(new KycReferenceKeyView(4L, "1234-5678-9012", "abcde1234a"));
+        index.load();
+
+        // ACT & ASSERT
+        assertEquals(Match.UNAVAILABLE, index.lookup("1234-5678-9012", "abcde1234a"));
+        assertEquals(Match.VERIFIED, index.lookup("123456789012", "ABCDE1234A"));
+    }
+
+    @Test
+    void refresh_PicksUpRowsInsertedAfterTheLoad() {
+        // ARRANGE
+        index.load();
+        rows.add(new KycReferenceKeyView(7L, "456789012345", "PQRST3456D"));
+
+        // ACT
+        index.refresh();
+
+        // ASSERT: only ids above the last one seen were requested
+        verify(kycReferenceRepository).findKeysAfter(eq(3L), any(Pageable.class));
+        assertEquals(Match.VERIFIED, index.lookup("456789012345", "PQRST3456D"));
+    }
+
+    @Test
+    void onReferenceChanged_InsertAndRemove_AreVisibleBeforeTheNextRebuild() {
+        // ARRANGE
+        index.load();
+
+        // ACT
+        index.onReferenceChanged(new KycReferenceChangedEvent(8L, "567890123456", "UVWXY7890E", Change.INSERTED));
+        index.onReferenceChanged(new KycReferenceChangedEvent(1L, "123456789012", "ABCDE1234A", Change.REMOVED));
+
+        // ASSERT
+        assertEquals(Match.VERIFIED, index.lookup("567890123456", "UVWXY7890E"));
+        assertEquals(Match.NOT_FOUND, index.lookup("123456789012", "ABCDE1234A"));
+    }
+
+    @Test
+    void refresh_AfterUpdateEvent_RebuildsAndDropsTheOldPair() {
+        // ARRANGE: row 2 is re-keyed; the event only carries the new values
+        index.load();
+        rows.set(1, new KycReferenceKeyView(2L, "234567890999", "FGHIJ5678B"));
+        index.onReferenceChanged(new KycReferenceChangedEvent(2L, "234567890999", "FGHIJ5678B", Change.UPDATED));
+        assertEquals(Match.VERIFIED, index.lookup("234567890123", "FGHIJ5678B"));
+
+        // ACT
+        index.refresh();
+
+        // ASSERT
+        assertEquals(Match.NOT_FOUND, index.lookup("234567890123", "FGHIJ5678B"));
+        assertEquals(Match.VERIFIED, index.lookup("234567890999", "FGHIJ5678B"));
+    }
+
+    @Test
+    void snapshot_BloomFilter_RejectsMostUnknownPairsWithoutFalseNegatives() {
+        // ARRANGE
+        int size = 20_000;
+        long[] aadhaars = new long[size];
+        long[] pans = new long[size];
+        for (int i = 0; i < size; i++) {
+            aadhaars[i] = 100_000_000_000L + i * 7919L;
+            pans[i] = i * 104_729L;
+        }
+
+        // ACT
+        KycReferenceIndex.Snapshot snapshot = new KycReferenceIndex.Snapshot(aadhaars, pans, size, 0, 0.01);
+
+        // ASSERT
+        int falsePositives = 0;
+        for (int i = 0; i < size; i++) {
+            assertTrue(snapshot.mightContain(aadhaars[i], pans[i]));
+            assertEquals(pans[i], snapshot.panFor(aadhaars[i]));
+            if (snapshot.mightContain(aadhaars[i], pans[i] + 1)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < size * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void pack_RejectsValuesOutsideAadhaarAndPanFormats() {
+        assertEquals(123456789012L, KycReferenceIndex.packAadhaar("123456789012"));
+        assertEquals(-1, KycReferenceIndex.packAadhaar("12345678901"));
+        assertEquals(-1, KycReferenceIndex.packPan("ABCD12345A"));
+        assertEquals(-1, KycReferenceIndex.packPan(null));
+        assertNotEquals(KycReferenceIndex.packPan("ABCDE1234A"), KycReferenceIndex.packPan("ABCDE1234B"));
+        assertEquals(0, KycReferenceIndex.packPan("AAAAA0000A"));
+    }
+}
@@ -0,0 +1,176 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.dto.CustomerKycProfileView;
+import com.virtusa.starfinance.dto.KycRequest;
+import com.virtusa.starfinance.dto.KycResponse;
+import com.virtusa.starfinance.repository.CustomerRepository;
+import com.virtusa.starfinance.repository.KycReferenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KycVerificationServiceTest {
+
+    private static final String EMAIL = "ravi@example.com";
+    private static final String AADHAAR = "123456789012";
+    private static final String PAN = "ABCDE1234A";
+
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private KycReferenceRepository kycReferenceRepository;
+    @Mock
+    private KycReferenceIndex kycReferenceIndex;
+    @Mock
+    private KnNumberAllocator knNumberAllocator;
+
+    @InjectMocks
+    private KycVerificationService kycVerificationService;
+
+    private KycRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new KycRequest();
+        request.setFullName("Ravi Kumar Sharma");
+        request.setAadhaarNumber(AADHAAR);
+        request.setPanNumber(PAN);
+        request.setCity("Chennai");
+    }
+
+    @Test
+    void verify_FirstSubmission_WritesIdentityAndProfileInOneUpdate() {
+        // ARRANGE
+        CustomerKycProfileView customer = unverified(1L, EMAIL);
+        when(customerRepository.findKycProfilesByEmailOrIdentity(EMAIL, AADHAAR, PAN)).thenReturn(List.of(customer));
+        when(kycReferenceIndex.lookup(AADHAAR, PAN)).thenReturn(KycReferenceIndex.Match.VERIFIED);
+        when(knNumberAllocator.nextKnNumber()).thenReturn("KN0000000000018");
+
+        // ACT
+        KycResponse response = kycVerificationService.verify(EMAIL, request);
+
+        // ASSERT
+        assertEquals("KYC verified successfully", response.getMessage());
+        assertEquals("KN0000000000018", response.getKnNumber());
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("knNumber", "KN0000000000018");
+        expected.put("kycStatus", true);
+        expected.put("kycVerified", true);
+        expected.put("aadhaar", AADHAAR);
+        expected.put("panCard", PAN);
+        expected.put("name", "Ravi Kumar Sharma");
+        expected.put("city", "Chennai");
+        verify(customerRepository).updateAttributes(1L, expected);
+        verifyNoInteractions(kycReferenceRepository);
+    }
+
+    @Test
+    void verify_PanOwnedByAnotherCustomer_IsRejectedWithoutWriting() {
+        // ARRANGE
+        CustomerKycProfileView other = profile(2L, "priya@example.com", true, true, "KN0000000000075", null, PAN);
+        CustomerKycProfileView customer = unverified(1L, EMAIL);
+        when(customerRepository.findKycProfilesByEmailOrIdentity(EMAIL, AADHAAR, PAN)).thenReturn(List.of(other, customer));
+        when(kycReferenceIndex.lookup(AADHAAR, PAN)).thenReturn(KycReferenceIndex.Match.VERIFIED);
+
+        // ACT & ASSERT
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> kycVerificationService.verify(EMAIL, request));
+        assertEquals(KycVerificationService.PAN_IN_USE_MSG, e.getMessage());
+        verify(customerRepository, never()).updateAttributes(any(), anyMap());
+        verifyNoInteractions(knNumberAllocator);
+    }
+
+    @Test
+    void verify_IndexUnavailable_FallsBackToReferenceTable() {
+        // ARRANGE
+        CustomerKycProfileView customer = unverified(1L, EMAIL);
+        when(customerRepository.findKycProfilesByEmailOrIdentity(EMAIL, AADHAAR, PAN)).thenReturn(List.of(customer));
+        when(kycReferenceIndex.lookup(AADHAAR, PAN)).thenReturn(KycReferenceIndex.Match.UNAVAILABLE);
+        when(kycReferenceRepository.findByAadhaarNumberAndPanNumber(AADHAAR, PAN)).thenReturn(Optional.empty());
+
+        // ACT & ASSERT
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> kycVerificationService.verify(EMAIL, request));
+        assertEquals(KycVerificationService.REFERENCE_MISMATCH_MSG, e.getMessage());
+        verify(customerRepository, never()).updateAttributes(any(), anyMap());
+    }
+
+    @Test
+    void verify_ConcurrentClaimHitsUniqueConstraint_IsReportedAsAlreadyLinked() {
+        // ARRANGE
+        CustomerKycProfileView customer = unverified(1L, EMAIL);
+        when(customerRepository.findKycProfilesByEmailOrIdentity(EMAIL, AADHAAR, PAN)).thenReturn(List.of(customer));
+        when(kycReferenceIndex.lookup(AADHAAR, PAN)).thenReturn(KycReferenceIndex.Match.VERIFIED);
+        when(knNumberAllocator.nextKnNumber()).thenReturn("KN0000000000018");
+        when(customerRepository.updateAttributes(eq(1L), anyMap())).thenThrow(new DataIntegrityViolationException("uk_customer_aadhaar"));
+
+        // ACT & ASSERT
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> kycVerificationService.verify(EMAIL, request));
+        assertEquals(KycVerificationService.IDENTITY_IN_USE_MSG, e.getMessage());
+    }
+
+    @Test
+    void verify_AlreadyVerified_WritesOnlyChangedProfileFields() {
+        // ARRANGE: stored city differs and kyc_verified lags kyc_status; identity fields are not touched
+        CustomerKycProfileView customer = new CustomerKycProfileView(1L, EMAIL, "999999999999", "ZZZZZ9999Z",
+                "KN0000000000075", true, false, "Ravi Kumar Sharma", null, null, null, null, null, "Pune",
+                null, null, null, null, null, null, null);
+        when(customerRepository.findKycProfilesByEmailOrIdentity(anyString(), anyString(), anyString())).thenReturn(List.of(customer));
+
+        // ACT
+        KycResponse response = kycVerificationService.verify(EMAIL, request);
+
+        // ASSERT
+        assertEquals("Profile updated successfully", response.getMessage());
+        assertEquals("KN0000000000075", response.getKnNumber());
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("kycVerified", true);
+        expected.put("city", "Chennai");
+        verify(customerRepository).updateAttributes(1L, expected);
+        verifyNoInteractions(kycReferenceIndex, knNumberAllocator);
+    }
+
+    @Test
+    void verify_AlreadyVerifiedUnchanged_SkipsTheWrite() {
+        // ARRANGE
+        CustomerKycProfileView customer = profile(1L, EMAIL, true, true, "KN0000000000075", AADHAAR, PAN);
+        when(customerRepository.findKycProfilesByEmailOrIdentity(EMAIL, AADHAAR, PAN)).thenReturn(List.of(customer));
+
+        // ACT
+        KycResponse response = kycVerificationService.verify(EMAIL, request);
+
+        // ASSERT
+        assertEquals("Profile updated successfully", response.getMessage());
+        verify(customerRepository).findKycProfilesByEmailOrIdentity(EMAIL, AADHAAR, PAN);
+        verifyNoMoreInteractions(customerRepository);
+    }
+
+    private static CustomerKycProfileView unverified(Long id, String email) {
+        return new CustomerKycProfileView(id, email, null, null, null, false, false,
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    // Profile matching the request's name and city, every other form field empty
+    private static CustomerKycProfileView profile(Long id, String email, boolean kycStatus, boolean kycVerified,
+                                                  String knNumber, String aadhaar, String panCard) {
+        return new CustomerKycProfileView(id, email, aadhaar, panCard, knNumber, kycStatus, kycVerified,
+                "Ravi Kumar Sharma", null, null, null, null, null, "Chennai", null, null, null, null, null, null, null);
+    }
+}
@@ -1,9 +1,17 @@
 package com.virtusa.starfinance.service;
 
+import com.virtusa.starfinance.dto.BulkLoanStatusUpdateRequest;
+import com.virtusa.starfinance.dto.BulkLoanStatusUpdateResponse;
 import com.virtusa.starfinance.dto.EvaluationDataRequest;
 import com.virtusa.starfinance.dto.FinePaymentRequest;
 import com.virtusa.starfinance.dto.LoanApplicationRequest;
+import com.virtusa.starfinance.dto.LoanDetailsResponse;
+import com.virtusa.starfinance.dto.LoanDetailsView;
+import com.virtusa.starfinance.dto.LoanNextActionsResponse;
+import com.virtusa.starfinance.dto.LoanQueuePage;
 import com.virtusa.starfinance.dto.LoanResponse;
+import com.virtusa.starfinance.dto.LoanStatusTransitionView;
+import com.virtusa.starfinance.dto.LoanSummaryView;
 import com.virtusa.starfinance.entity.Asset;
 import com.virtusa.starfinance.entity.Customer;
 import com.virtusa.starfinance.entity.LoanApplication;
@@ -16,9 +24,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -27,7 +41,10 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +56,14 @@ class LoanApplicationServiceTest {
     private AssetRepository assetRepository;
     @Mock
     private LoanApplicationRepository loanApplicationRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private LoanStateMachine loanStateMachine = new LoanStateMachine();
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Spy
+    private LoanRidGenerator loanRidGenerator = new LoanRidGenerator(0);
 
     @InjectMocks
     private LoanApplicationService loanApplicationService;
@@ -99,7 +124,9 @@ class LoanApplicationServiceTest {
 
         // ASSERT
         assertNotNull(rid);
-        verify(loanApplicationRepository, times(1)).save(any(LoanApplication.class));
+        ArgumentCaptor<LoanApplication> saved = ArgumentCaptor.forClass(LoanApplication.class);
+        verify(loanApplicationRepository, times(1)).save(saved.capture());
+        assertTrue(saved.getValue().getRid().matches("GLN-[0-9A-Z]{13}"));
     }
 
     @Test
@@ -130,8 +157,7 @@ class LoanApplicationServiceTest {
     @Test
     void getLoansByCustomerId_Success_ReturnsMappedResponses() {
         // ARRANGE
-        mockLoan.setCreatedAt(LocalDateTime.now());
-        when(loanApplicationRepository.findByCustomerId(anyLong())).thenReturn(Collections.singletonList(mockLoan));
+        when(loanApplicationRepository.findSummariesByCustomerId(anyLong())).thenReturn(Collections.singletonList(summaryOf(mockLoan, LocalDateTime.now())));
 
         // ACT
         List<LoanResponse> results = loanApplicationService.getLoansByCustomerId(1L);
@@ -147,7 +173,7 @@ class LoanApplicationServiceTest {
     @Test
     void getLoansByCustomerId_EmptyResult_ReturnsEmptyList() {
         // ARRANGE
-        when(loanApplicationRepository.findByCustomerId(anyLong())).thenReturn(Collections.emptyList());
+        when(loanApplicationRepository.findSummariesByCustomerId(anyLong())).thenReturn(Collections.emptyList());
 
         // ACT
         List<LoanResponse> results = loanApplicationService.getLoansByCustomerId(1L);
@@ -163,8 +189,7 @@ class LoanApplicationServiceTest {
     @Test
     void getAllLoanApplications_Success_ReturnsAllLoans() {
         // ARRANGE
-        mockLoan.setCreatedAt(LocalDateTime.now());
-        when(loanApplicationRepository.findAll()).thenReturn(Collections.singletonList(mockLoan));
+        when(loanApplicationRepository.findAllSummaries()).thenReturn(Collections.singletonList(summaryOf(mockLoan, LocalDateTime.now())));
 
         // ACT
         List<LoanResponse> results = loanApplicationService.getAllLoanApplications();
@@ -208,17 +233,136 @@ class LoanApplicationServiceTest {
         verify(loanApplicationRepository).save(captor.capture());
         assertEquals(LoanApplication.LoanStatus.REJECTED_FOR_REVIEW, captor.getValue().getStatus());
         assertEquals("New documentation needed", captor.getValue().getRejectionReason()); // Reason saved
+
+        ArgumentCaptor<LoanApplicationService.LoanStatusChangedEvent> event =
+                ArgumentCaptor.forClass(LoanApplicationService.LoanStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(LoanApplication.LoanStatus.PENDING, event.getValue().fromStatus());
+        assertEquals(LoanApplication.LoanStatus.REJECTED_FOR_REVIEW, event.getValue().toStatus());
+        assertEquals("New documentation needed", event.getValue().reason());
+        assertEquals("system", event.getValue().actor()); // no authenticated caller in a unit test
     }
 
     @Test
     void updateLoanStatus_InvalidStatusTransition_ThrowsIllegalStateException() {
-        // ARRANGE: Attempting to accept offer when status is PENDING (not OFFER_MADE)
+        // ARRANGE: Attempting to make an offer before the gold is evaluated
         when(loanApplicationRepository.findByRid(testRid)).thenReturn(Optional.of(mockLoan));
 
         // ACT & ASSERT
-        IllegalStateException e = assertThrows(IllegalStateException.class, () -> loanApplicationService.updateLoanStatus(testRid, "OFFER_ACCEPTED", null));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> loanApplicationService.updateLoanStatus(testRid, "OFFER_MADE", null));
+
+        assertTrue(e.getMessage().contains("Must be one of [EVALUATED]"));
+        verify(loanApplicationRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher); // rejected transitions are not audited
+    }
+
+    @Test
+    void updateLoanStatus_CustomerDecision_RejectedForEmployee() {
+        // ARRANGE: offer acceptance belongs to the customer, even while the offer is open
+        mockLoan.setStatus(LoanApplication.LoanStatus.OFFER_MADE);
+        when(loanApplicationRepository.findByRid(testRid)).thenReturn(Optional.of(mockLoan));
+
+        // ACT & ASSERT
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> loanApplicationService.updateLoanStatus(testRid, "offer_accepted", null));
+
+        assertTrue(e.getMessage().contains("cannot be set by EMPLOYEE"));
+        assertEquals(LoanApplication.LoanStatus.OFFER_MADE, mockLoan.getStatus());
+    }
+
+    @Test
+    void getAllowedNextStatuses_EvaluatedLoan_ReturnsEmployeeActions() {
+        // ARRANGE
+        when(loanApplicationRepository.findStatusByRid(testRid)).thenReturn(Optional.of(LoanApplication.LoanStatus.EVALUATED));
+
+        // ACT
+        LoanNextActionsResponse response = loanApplicationService.getAllowedNextStatuses(testRid, LoanStateMachine.Actor.EMPLOYEE);
 
-        assertTrue(e.getMessage().contains("Must be Offer Made"));
+        // ASSERT
+        assertEquals(LoanApplication.LoanStatus.EVALUATED, response.getStatus());
+        assertEquals(List.of(LoanApplication.LoanStatus.OFFER_MADE, LoanApplication.LoanStatus.REJECTED), response.getAllowedNextStatuses());
+        verify(loanApplicationRepository, never()).findByRid(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateLoanStatuses_MixedItems_BatchesValidOnesAndReportsEachOutcome() {
+        // ARRANGE
+        when(loanApplicationRepository.findTransitionViewsByRidIn(any())).thenReturn(List.of(
+                new LoanStatusTransitionView(1L, "RID-A", LoanApplication.LoanStatus.PENDING, 0L),
+                new LoanStatusTransitionView(2L, "RID-B", LoanApplication.LoanStatus.PENDING, 3L),
+                new LoanStatusTransitionView(3L, "RID-C", LoanApplication.LoanStatus.DISBURSED, 1L)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+        List<BulkLoanStatusUpdateRequest.Item> items = List.of(
+                new BulkLoanStatusUpdateRequest.Item("RID-A", "verified", "ignored"),
+                new BulkLoanStatusUpdateRequest.Item("RID-B", "REJECTED_FOR_REVIEW", "Blurry ID"),
+                new BulkLoanStatusUpdateRequest.Item("RID-C", "VERIFIED", null),
+                new BulkLoanStatusUpdateRequest.Item("RID-X", "VERIFIED", null),
+                new BulkLoanStatusUpdateRequest.Item("RID-A", "BOGUS", null));
+
+        // ACT
+        BulkLoanStatusUpdateResponse response = loanApplicationService.updateLoanStatuses(items);
+
+        // ASSERT
+        assertEquals(2, response.getUpdated());
+        assertEquals(3, response.getFailed());
+        assertEquals(List.of(BulkLoanStatusUpdateResponse.Outcome.UPDATED,
+                        BulkLoanStatusUpdateResponse.Outcome.UPDATED,
+                        BulkLoanStatusUpdateResponse.Outcome.INVALID_TRANSITION,
+                        BulkLoanStatusUpdateResponse.Outcome.NOT_FOUND,
+                        BulkLoanStatusUpdateResponse.Outcome.DUPLICATE),
+                response.getResults().stream().map(BulkLoanStatusUpdateResponse.ItemResult::getOutcome).toList());
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertArrayEquals(new Object[]{"VERIFIED", null, 1L, 0L}, rows.getValue().get(0));
+        assertArrayEquals(new Object[]{"REJECTED_FOR_REVIEW", "Blurry ID", 2L, 3L}, rows.getValue().get(1));
+        verify(loanApplicationRepository, times(1)).findTransitionViewsByRidIn(any());
+        verify(loanApplicationRepository, never()).findByRid(any());
+        verify(eventPublisher, times(2)).publishEvent(any(LoanApplicationService.LoanStatusChangedEvent.class));
+    }
+
+    @Test
+    void updateLoanStatuses_ZeroRowsUpdated_ReportsConflictWithoutEvent() {
+        // ARRANGE
+        when(loanApplicationRepository.findTransitionViewsByRidIn(any())).thenReturn(List.of(
+                new LoanStatusTransitionView(1L, "RID-A", LoanApplication.LoanStatus.PENDING, 0L)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+
+        // ACT
+        BulkLoanStatusUpdateResponse response = loanApplicationService.updateLoanStatuses(
+                List.of(new BulkLoanStatusUpdateRequest.Item("RID-A", "VERIFIED", null)));
+
+        // ASSERT
+        assertEquals(0, response.getUpdated());
+        assertEquals(BulkLoanStatusUpdateResponse.Outcome.CONFLICT, response.getResults().get(0).getOutcome());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateLoanStatuses_CountsNotReported_ClassifiesRowsFromReread() {
+        // ARRANGE: a rewritten batch reports SUCCESS_NO_INFO; RID-B was moved on by another request
+        when(loanApplicationRepository.findTransitionViewsByRidIn(any())).thenReturn(List.of(
+                new LoanStatusTransitionView(1L, "RID-A", LoanApplication.LoanStatus.PENDING, 0L),
+                new LoanStatusTransitionView(2L, "RID-B", LoanApplication.LoanStatus.PENDING, 3L)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+        when(loanApplicationRepository.findTransitionViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new LoanStatusTransitionView(1L, "RID-A", LoanApplication.LoanStatus.VERIFIED, 1L),
+                new LoanStatusTransitionView(2L, "RID-B", LoanApplication.LoanStatus.REJECTED, 4L)));
+
+        // ACT
+        BulkLoanStatusUpdateResponse response = loanApplicationService.updateLoanStatuses(List.of(
+                new BulkLoanStatusUpdateRequest.Item("RID-A", "VERIFIED", null),
+                new BulkLoanStatusUpdateRequest.Item("RID-B", "VERIFIED", null)));
+
+        // ASSERT
+        assertEquals(1, response.getUpdated());
+        assertEquals(List.of(BulkLoanStatusUpdateResponse.Outcome.UPDATED, BulkLoanStatusUpdateResponse.Outcome.CONFLICT),
+                response.getResults().stream().map(BulkLoanStatusUpdateResponse.ItemResult::getOutcome).toList());
+        ArgumentCaptor<LoanApplicationService.LoanStatusChangedEvent> event =
+                ArgumentCaptor.forClass(LoanApplicationService.LoanStatusChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals("RID-A", event.getValue().rid());
     }
 
     @Test
@@ -271,19 +415,26 @@ class LoanApplicationServiceTest {
     @Test
     void getLoanDetailsByRid_Success_ReturnsMappedDetails() {
         // ARRANGE
-        when(loanApplicationRepository.findByRid(testRid)).thenReturn(Optional.of(mockLoan));
+        LoanDetailsView view = new LoanDetailsView(testRid, LoanApplication.LoanStatus.PENDING, LocalDateTime.now(),
+                BigDecimal.valueOf(50000), null, "Test Customer", "KN123", "9876543210", testEmail,
+                "123456789", "ABCD0123456", Asset.AssetType.TWENTY_TWO_CARAT, BigDecimal.TEN);
+        when(loanApplicationRepository.findDetailsByRid(testRid)).thenReturn(Optional.of(view));
 
         // ACT
-        loanApplicationService.getLoanDetailsByRid(testRid);
+        LoanDetailsResponse response = loanApplicationService.getLoanDetailsByRid(testRid);
 
-        // ASSERT (Just verify execution without exception)
-        verify(loanApplicationRepository, times(1)).findByRid(testRid);
+        // ASSERT
+        verify(loanApplicationRepository, times(1)).findDetailsByRid(testRid);
+        verify(loanApplicationRepository, never()).findByRid(anyString());
+        assertEquals("KN123", response.getApplicant().getKnNumber());
+        assertEquals("22 Carat", response.getAsset().getPurity());
+        assertEquals("ABCD0123456", response.getFinancial().getIfscCode());
     }
 
     @Test
     void getLoanDetailsByRid_NotFound_ThrowsNoSuchElementException() {
         // ARRANGE
-        when(loanApplicationRepository.findByRid(testRid)).thenReturn(Optional.empty());
+        when(loanApplicationRepository.findDetailsByRid(testRid)).thenReturn(Optional.empty());
 
         // ACT & ASSERT
         assertThrows(NoSuchElementException.class, () ->
@@ -463,6 +614,13 @@ class LoanApplicationServiceTest {
         verify(loanApplicationRepository).save(captor.capture());
         assertEquals(LoanApplication.LoanStatus.PENDING, captor.getValue().getStatus());
         assertNull(captor.getValue().getRejectionReason()); // Reason must be cleared
+
+        ArgumentCaptor<LoanApplicationService.LoanStatusChangedEvent> event =
+                ArgumentCaptor.forClass(LoanApplicationService.LoanStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(LoanApplication.LoanStatus.REJECTED_FOR_REVIEW, event.getValue().fromStatus());
+        assertEquals(LoanApplication.LoanStatus.PENDING, event.getValue().toStatus());
+        assertEquals(testEmail, event.getValue().actor());
     }
 
     @Test
@@ -480,4 +638,72 @@ class LoanApplicationServiceTest {
             loanApplicationService.reApplyLoan(testRid, customer);
         });
     }
+
+    // ====================================================================================
+    // 13. getLoanQueue(String, LocalDate, LocalDate, String, Integer)
+    // ====================================================================================
+
+    @Test
+    void getLoanQueue_MoreRowsThanPage_ReturnsCursorForNextPage() {
+        // ARRANGE: page size 1, repository returns size + 1 rows
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 15, 10, 30);
+        mockLoan.setId(42L);
+        LoanApplication olderLoan = new LoanApplication();
+        olderLoan.setId(41L);
+        olderLoan.setRid("RID-OLDER");
+        olderLoan.setCustomer(verifiedCustomer);
+        LoanSummaryView newest = summaryOf(mockLoan, createdAt);
+        LoanSummaryView older = summaryOf(olderLoan, createdAt.minusDays(1));
+        when(loanApplicationRepository.findQueuePage(isNull(), isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(newest, older));
+
+        // ACT
+        LoanQueuePage page = loanApplicationService.getLoanQueue(null, null, null, null, 1);
+
+        // ASSERT
+        assertEquals(1, page.getItems().size());
+        assertEquals(testRid, page.getItems().get(0).getId());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+
+        // Feeding the cursor back must seek past the last returned row
+        when(loanApplicationRepository.findQueuePage(isNull(), isNull(), isNull(), eq(createdAt), eq(42L), any(Pageable.class)))
+                .thenReturn(List.of(older));
+        LoanQueuePage next = loanApplicationService.getLoanQueue(null, null, null, page.getNextCursor(), 1);
+
+        assertEquals("RID-OLDER", next.getItems().get(0).getId());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getLoanQueue_FiltersAreTranslatedToQueryBounds() {
+        // ARRANGE
+        when(loanApplicationRepository.findQueuePage(any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        // ACT
+        loanApplicationService.getLoanQueue("pending", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), null, 500);
+
+        // ASSERT: "to" is inclusive, page size is clamped and one extra row is probed
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(loanApplicationRepository).findQueuePage(
+                eq(LoanApplication.LoanStatus.PENDING),
+                eq(LocalDateTime.of(2025, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2025, 2, 1, 0, 0)),
+                isNull(), isNull(), pageable.capture());
+        assertEquals(101, pageable.getValue().getPageSize());
+    }
+
+    @Test
+    void getLoanQueue_InvalidCursor_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () ->
+                loanApplicationService.getLoanQueue(null, null, null, "not-a-cursor", 10));
+    }
+
+    private static LoanSummaryView summaryOf(LoanApplication loan, LocalDateTime createdAt) {
+        return new LoanSummaryView(loan.getId(), loan.getRid(), loan.getStatus(), createdAt, loan.getFinalValue(),
+                loan.getRejectionReason(), loan.getCustomer().getName(), loan.getCustomer().getKnNumber(),
+                loan.getAsset() != null ? loan.getAsset().getType() : null);
+    }
 }
\ No newline at end of file
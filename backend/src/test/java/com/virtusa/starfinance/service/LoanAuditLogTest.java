@@ -0,0 +1,132 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.entity.LoanApplication;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanAuditLogTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoanAuditLog auditLog;
+
+    @AfterEach
+    void tearDown() {
+        if (auditLog != null) {
+            auditLog.close();
+        }
+    }
+
+    private LoanAuditLog start(int capacity, int batchSize) {
+        auditLog = new LoanAuditLog(jdbcTemplate, transactionManager, meterRegistry, capacity, batchSize, 20, 2000);
+        auditLog.start();
+        return auditLog;
+    }
+
+    private static LoanApplicationService.LoanStatusChangedEvent event(int i) {
+        return new LoanApplicationService.LoanStatusChangedEvent("GLN-" + i, LoanApplication.LoanStatus.PENDING,
+                LoanApplication.LoanStatus.VERIFIED, "staff01@starfinance.com", null, LocalDateTime.now());
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onStatusChanged_BufferedEvents_AreBatchInsertedOffTheCallerThread() throws Exception {
+        // ARRANGE: hold the writer on its first batch so the rest pile up in the buffer
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        List<String> writerThreads = Collections.synchronizedList(new ArrayList<>());
+        when(jdbcTemplate.batchUpdate(eq(LoanAuditLog.INSERT_SQL), anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            batchSizes.add(((List<Object[]>) invocation.getArgument(1)).size());
+            writerThreads.add(Thread.currentThread().getName());
+            return new int[0];
+        });
+        start(100, 10);
+
+        // ACT
+        auditLog.onStatusChanged(event(0));
+        Thread.sleep(100);
+        for (int i = 1; i <= 25; i++) {
+            auditLog.onStatusChanged(event(i));
+        }
+        release.countDown();
+        auditLog.close();
+
+        // ASSERT: 1 + 10 + 10 + 5, all on the writer thread
+        assertEquals(List.of(1, 10, 10, 5), batchSizes);
+        assertTrue(writerThreads.stream().allMatch("loan-audit-writer"::equals));
+        assertEquals(26.0, count("loan.audit.written"));
+        assertEquals(0.0, count("loan.audit.overflow"));
+    }
+
+    @Test
+    void onStatusChanged_BufferFull_WritesOnCallerInsteadOfDropping() throws Exception {
+        // ARRANGE: writer blocked on the first record, buffer holds one more
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(eq(LoanAuditLog.INSERT_SQL), anyList())).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("loan-audit-writer")) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return new int[0];
+        });
+        start(1, 10);
+        auditLog.onStatusChanged(event(0));
+        Thread.sleep(100);
+        auditLog.onStatusChanged(event(1));
+
+        // ACT
+        auditLog.onStatusChanged(event(2));
+
+        // ASSERT
+        assertEquals(1.0, count("loan.audit.overflow"));
+        release.countDown();
+        auditLog.close();
+        assertEquals(3.0, count("loan.audit.written"));
+        assertEquals(0.0, count("loan.audit.dropped"));
+    }
+
+    @Test
+    void close_FailedBatch_CountsRecordsAsDropped() {
+        // ARRANGE
+        when(jdbcTemplate.batchUpdate(eq(LoanAuditLog.INSERT_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        start(100, 10);
+        auditLog.onStatusChanged(event(0));
+        auditLog.onStatusChanged(event(1));
+
+        // ACT
+        auditLog.close();
+
+        // ASSERT
+        assertEquals(2.0, count("loan.audit.dropped"));
+        assertEquals(0.0, count("loan.audit.written"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.CommittingJpaTest;
+import com.virtusa.starfinance.dto.LoanImportSummary;
+import com.virtusa.starfinance.entity.Customer;
+import com.virtusa.starfinance.entity.LoanApplication;
+import com.virtusa.starfinance.repository.AssetRepository;
+import com.virtusa.starfinance.repository.CustomerRepository;
+import com.virtusa.starfinance.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@CommittingJpaTest(properties = "loan.import.batch-size=2")
+@Import({LoanImportService.class, LoanStateMachine.class, LoanRidGenerator.class, JacksonAutoConfiguration.class})
+class LoanImportServiceTest {
+
+    @Autowired
+    private LoanImportService loanImportService;
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+    @Autowired
+    private AssetRepository assetRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private final RecordingListener listener = new RecordingListener();
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.save(customer("verified@example.com", true));
+        customerRepository.save(customer("pending@example.com", false));
+    }
+
+    @Test
+    void importLoans_Csv_ImportsValidRowsAndReportsEachRejectedLine() throws Exception {
+        // ARRANGE: batches of 2; line 6 repeats a RID committed by the first batch and is checked last,
+        // after the unparseable lines 7 and 9 were already rejected
+        String csv = """
+                rid,customerEmail,purity,netWeight,amount,status,finalValue,createdAt
+                GLN-OLD0001,verified@example.com,22K,12.5,50000,DISBURSED,48000,2023-04-01T10:00:00
+                ,verified@example.com,24k,8,30000,,,
+                GLN-OLD0002,missing@example.com,22K,10,40000,,,
+                GLN-OLD0003,pending@example.com,22K,10,40000,,,
+                GLN-OLD0001,verified@example.com,22K,10,40000,,,
+                GLN-OLD0004,verified@example.com,21K,10,40000,,,
+
+                "GLN-OLD0005","verified@example.com","18K","5.0","20,000",,,
+                """;
+
+        // ACT
+        LoanImportSummary summary = loanImportService.importLoans(
+                new StringReader(csv), LoanImportService.Format.CSV, "admin@starfinance.com", listener);
+
+        // ASSERT
+        assertEquals(new LoanImportSummary(7, 2, 5), summary);
+        assertEquals(List.of(
+                "4 GLN-OLD0002 Customer not found: missing@example.com",
+                "5 GLN-OLD0003 Customer KYC is not verified: pending@example.com",
+                "7 null Invalid purity: 21K",
+                "9 null amount is not a number: 20,000",
+                "6 GLN-OLD0001 RID already exists: GLN-OLD0001"), listener.rejected);
+        assertEquals(2, loanApplicationRepository.count());
+        assertEquals(2, assetRepository.count());
+
+        LoanApplication migrated = loanApplicationRepository.findByRid("GLN-OLD0001").orElseThrow();
+        assertEquals(LoanApplication.LoanStatus.DISBURSED, migrated.getStatus());
+        assertEquals(0, new BigDecimal("48000").compareTo(migrated.getFinalValue()));
+        assertEquals(LocalDateTime.of(2023, 4, 1, 10, 0), migrated.getCreatedAt());
+        assertTrue(loanApplicationRepository.findAll().stream()
+                .anyMatch(loan -> loan.getRid().matches("GLN-[0-9A-Z]{13}") && loan.getStatus() == LoanApplication.LoanStatus.PENDING));
+    }
+
+    @Test
+    void importLoans_Ndjson_SkipsMalformedLinesAndReportsProgressPerBatch() throws Exception {
+        // ARRANGE
+        String ndjson = """
+                {"customerEmail":"verified@example.com","purity":"22K","netWeight":10,"amount":40000}
+                {"customerEmail":"verified@example.com","purity":"22K",
+                {"customerEmail":"verified@example.com","purity":"18K","netWeight":4,"amount":15000,"status":"offer_made"}
+                {"customerEmail":"verified@example.com","purity":"18K","netWeight":4,"amount":15000,"status":"ARCHIVED"}
+                """;
+
+        // ACT
+        LoanImportSummary summary = loanImportService.importLoans(
+                new StringReader(ndjson), LoanImportService.Format.NDJSON, "admin@starfinance.com", listener);
+
+        // ASSERT
+        assertEquals(new LoanImportSummary(4, 2, 2), summary);
+        assertEquals(2, listener.rejected.size());
+        assertTrue(listener.rejected.get(0).startsWith("2 null Malformed JSON"));
+        assertEquals("4 null Invalid loan status: ARCHIVED", listener.rejected.get(1));
+        assertEquals(List.of(new LoanImportSummary(3, 2, 1)), listener.progress);
+        assertEquals(2, loanApplicationRepository.count());
+    }
+
+    @Test
+    void importLoans_BatchRejectedByDatabase_RetriesRowByRowAndRejectsOnlyTheBadLine() throws Exception {
+        // ARRANGE: one batch of 2 whose second RID is longer than the column
+        String csv = "rid,customerEmail,purity,netWeight,amount\n"
+                + "GLN-OLD0001,verified@example.com,22K,10,40000\n"
+                + "GLN-" + "X".repeat(300) + ",verified@example.com,22K,10,40000\n";
+
+        // ACT
+        LoanImportSummary summary = loanImportService.importLoans(
+                new StringReader(csv), LoanImportService.Format.CSV, "admin@starfinance.com", listener);
+
+        // ASSERT
+        assertEquals(new LoanImportSummary(2, 1, 1), summary);
+        assertEquals(1, listener.rejected.size());
+        assertTrue(listener.rejected.get(0).startsWith("3 GLN-XXX"), listener.rejected.get(0));
+        assertTrue(listener.rejected.get(0).contains("Rejected by database: "), listener.rejected.get(0));
+        assertTrue(loanApplicationRepository.findByRid("GLN-OLD0001").isPresent());
+        assertEquals(1, assetRepository.count());
+    }
+
+    @Test
+    void importLoans_CsvHeaderMissingRequiredColumn_IsRejectedBeforeAnyWrite() {
+        // ACT & ASSERT
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> loanImportService.importLoans(
+                new StringReader("customerEmail,purity,amount\nverified@example.com,22K,1000\n"),
+                LoanImportService.Format.CSV, "admin@starfinance.com", listener));
+        assertEquals("CSV header is missing required column: netWeight", e.getMessage());
+        assertEquals(0, loanApplicationRepository.count());
+    }
+
+    private static Customer customer(String email, boolean kycVerified) {
+        Customer customer = new Customer();
+        customer.setName(email);
+        customer.setEmail(email);
+        customer.setKycVerified(kycVerified);
+        return customer;
+    }
+
+    private static final class RecordingListener implements LoanImportService.Listener {
+        final List<String> rejected = new ArrayList<>();
+        final List<LoanImportSummary> progress = new ArrayList<>();
+
+        @Override
+        public void rowRejected(long line, String rid, String message) {
+            rejected.add(line + " " + rid + " " + message);
+        }
+
+        @Override
+        public void batchCommitted(LoanImportSummary summary) {
+            progress.add(summary);
+        }
+    }
+}
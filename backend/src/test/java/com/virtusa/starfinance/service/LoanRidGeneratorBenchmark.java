@@ -0,0 +1,45 @@
+package com.virtusa.starfinance.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RID issue rate of LoanRidGenerator against the previous random-UUID scheme, with all benchmark
+ * threads sharing one generator so CAS contention on the packed time/sequence word is included.
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark="LoanRidGeneratorBenchmark -f 1 -wi 2 -i 5"
+ * <p>
+ * Add {@code -t 1} to see the uncontended cost.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class LoanRidGeneratorBenchmark {
+
+    private final LoanRidGenerator generator = new LoanRidGenerator(0);
+
+    @Benchmark
+    public String timeOrdered() {
+        return generator.nextRid();
+    }
+
+    @Benchmark
+    public String randomUuidPrefix() {
+        return "GLN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
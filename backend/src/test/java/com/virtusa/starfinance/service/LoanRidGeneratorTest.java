@@ -0,0 +1,97 @@
+package com.virtusa.starfinance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanRidGeneratorTest {
+
+    @Test
+    void nextRid_ManyThreads_NeverRepeatsAndStaysOrderedPerThread() throws Exception {
+        // ARRANGE
+        LoanRidGenerator generator = new LoanRidGenerator(7);
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await(5, TimeUnit.SECONDS);
+                List<String> rids = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    rids.add(generator.nextRid());
+                }
+                return rids;
+            }));
+        }
+
+        // ACT
+        start.countDown();
+        Set<String> all = new HashSet<>();
+        try {
+            for (Future<List<String>> future : futures) {
+                List<String> rids = future.get(30, TimeUnit.SECONDS);
+                for (int i = 1; i < rids.size(); i++) {
+                    assertTrue(rids.get(i - 1).compareTo(rids.get(i)) < 0, rids.get(i - 1) + " !< " + rids.get(i));
+                }
+                all.addAll(rids);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // ASSERT
+        assertEquals(threads * perThread, all.size());
+        assertTrue(all.stream().allMatch(rid -> rid.matches("GLN-[0-9A-HJKMNP-TV-Z]{13}")));
+    }
+
+    @Test
+    void nextId_SequenceExhaustedOrClockStepsBack_BorrowsFromNextMillisecond() {
+        // ARRANGE: a frozen clock, later moved back by a second
+        AtomicLong now = new AtomicLong(LoanRidGenerator.EPOCH_MILLIS + 1_000);
+        LoanRidGenerator generator = new LoanRidGenerator(1, now::get);
+        int perMillisecond = 1 << LoanRidGenerator.SEQUENCE_BITS;
+
+        // ACT
+        long previous = generator.nextId();
+        for (int i = 1; i <= perMillisecond; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        now.addAndGet(-1_000);
+        long afterClockStep = generator.nextId();
+
+        // ASSERT: the 4097th id moved to the next millisecond and the clock step did not go backwards
+        long shift = LoanRidGenerator.NODE_BITS + LoanRidGenerator.SEQUENCE_BITS;
+        assertEquals(1_001, previous >>> shift);
+        assertTrue(afterClockStep > previous);
+        assertEquals(1, (afterClockStep >>> LoanRidGenerator.SEQUENCE_BITS) & LoanRidGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void encode_PreservesNumericOrderAsStringOrder() {
+        // ACT & ASSERT
+        assertEquals("0000000000000", LoanRidGenerator.encode(0));
+        assertEquals("7ZZZZZZZZZZZZ", LoanRidGenerator.encode(Long.MAX_VALUE));
+        assertTrue(LoanRidGenerator.encode(31).compareTo(LoanRidGenerator.encode(32)) < 0);
+    }
+
+    @Test
+    void constructor_NodeIdOutOfRange_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LoanRidGenerator(LoanRidGenerator.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new LoanRidGenerator(-1));
+    }
+}
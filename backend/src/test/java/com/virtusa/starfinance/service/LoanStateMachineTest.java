@@ -0,0 +1,73 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.entity.LoanApplication.LoanStatus;
+import com.virtusa.starfinance.service.LoanStateMachine.Actor;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanStateMachineTest {
+
+    private final LoanStateMachine stateMachine = new LoanStateMachine();
+
+    @Test
+    void allowedTargets_HappyPath_AlternatesBetweenEmployeeAndCustomer() {
+        // ARRANGE: application -> verification -> gold -> evaluation -> offer -> disbursement
+        LoanStatus[][] steps = {
+                {LoanStatus.PENDING, LoanStatus.VERIFIED},
+                {LoanStatus.VERIFIED, LoanStatus.GOLD_SUBMITTED},
+                {LoanStatus.GOLD_SUBMITTED, LoanStatus.EVALUATED},
+                {LoanStatus.EVALUATED, LoanStatus.OFFER_MADE},
+                {LoanStatus.OFFER_MADE, LoanStatus.OFFER_ACCEPTED},
+                {LoanStatus.OFFER_ACCEPTED, LoanStatus.DISBURSED}
+        };
+        Actor[] actors = {Actor.EMPLOYEE, Actor.CUSTOMER, Actor.EMPLOYEE, Actor.EMPLOYEE, Actor.CUSTOMER, Actor.EMPLOYEE};
+
+        // ACT & ASSERT: each step is allowed for exactly its own actor
+        for (int i = 0; i < steps.length; i++) {
+            Actor other = actors[i] == Actor.EMPLOYEE ? Actor.CUSTOMER : Actor.EMPLOYEE;
+            assertTrue(stateMachine.canTransition(actors[i], steps[i][0], steps[i][1]), "step " + i);
+            assertFalse(stateMachine.canTransition(other, steps[i][0], steps[i][1]), "step " + i);
+        }
+    }
+
+    @Test
+    void allowedTargets_TerminalStates_AreEmptyForEveryActor() {
+        for (LoanStatus terminal : EnumSet.of(LoanStatus.DISBURSED, LoanStatus.GOLD_COLLECTED, LoanStatus.REJECTED)) {
+            for (Actor actor : Actor.values()) {
+                assertTrue(stateMachine.allowedTargets(actor, terminal).isEmpty(), actor + " from " + terminal);
+            }
+        }
+    }
+
+    @Test
+    void allowedTargets_IsReadOnly() {
+        // ARRANGE
+        Set<LoanStatus> targets = stateMachine.allowedTargets(Actor.EMPLOYEE, LoanStatus.PENDING);
+
+        // ACT & ASSERT
+        assertEquals(EnumSet.of(LoanStatus.VERIFIED, LoanStatus.REJECTED_FOR_REVIEW), targets);
+        assertThrows(UnsupportedOperationException.class, () -> targets.add(LoanStatus.DISBURSED));
+    }
+
+    @Test
+    void requireTransition_Disallowed_NamesValidSourceStatuses() {
+        // ACT & ASSERT
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> stateMachine.requireTransition(Actor.EMPLOYEE, LoanStatus.PENDING, LoanStatus.REJECTED));
+
+        assertEquals("Cannot move loan to REJECTED. Current status is PENDING. Must be one of [EVALUATED, GOLD_SUBMITTED].",
+                e.getMessage());
+    }
+
+    @Test
+    void parseStatus_IsCaseInsensitiveAndRejectsUnknownNames() {
+        assertEquals(LoanStatus.OFFER_MADE, stateMachine.parseStatus("offer_made"));
+        assertEquals(LoanStatus.PENDING, stateMachine.parseStatus("Pending"));
+        assertThrows(IllegalArgumentException.class, () -> stateMachine.parseStatus("APPROVED"));
+        assertThrows(IllegalArgumentException.class, () -> stateMachine.parseStatus(null));
+    }
+}
@@ -0,0 +1,106 @@
+package com.virtusa.starfinance.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLoggingFilterTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void doFilter_SampledRequest_LogsPathWithoutQueryString() throws Exception {
+        // ARRANGE
+        RequestLoggingFilter filter = new RequestLoggingFilter(1.0, 1000);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customer/loans");
+        request.setQueryString("token=secret");
+
+        // ACT
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // ASSERT
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.startsWith("GET /api/customer/loans 200 in "), line);
+        assertFalse(line.contains("secret"));
+    }
+
+    @Test
+    void doFilter_UnsampledRequests_LogOnlyServerErrors() throws Exception {
+        // ARRANGE
+        RequestLoggingFilter filter = new RequestLoggingFilter(0.0, 60_000);
+        MockHttpServletResponse failed = new MockHttpServletResponse();
+        failed.setStatus(503);
+
+        // ACT
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/bullion/rates"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/customer/kyc"), failed, new MockFilterChain());
+
+        // ASSERT
+        List<String> lines = appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("POST /api/customer/kyc 503 in "), lines.get(0));
+    }
+
+    @Test
+    void doFilter_ChainThrows_LogsServerErrorAndRethrows() {
+        // ARRANGE: unsampled, so only the failure gets it logged
+        RequestLoggingFilter filter = new RequestLoggingFilter(0.0, 60_000);
+        FilterChain chain = (request, response) -> {
+            throw new IllegalStateException("boom");
+        };
+
+        // ACT
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(
+                new MockHttpServletRequest("GET", "/api/customer/loans"), new MockHttpServletResponse(), chain));
+
+        // ASSERT
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.startsWith("GET /api/customer/loans 500 in "), line);
+    }
+
+    @Test
+    void doFilter_AsyncRequest_LogsOnCompletion() throws Exception {
+        // ARRANGE
+        RequestLoggingFilter filter = new RequestLoggingFilter(1.0, 1000);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bullion/rates/stream");
+        request.setAsyncSupported(true);
+        FilterChain chain = (req, res) -> req.startAsync();
+
+        // ACT
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        int loggedBeforeCompletion = appender.list.size();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // ASSERT
+        assertEquals(0, loggedBeforeCompletion);
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().startsWith("GET /api/bullion/rates/stream 200 in "));
+    }
+}
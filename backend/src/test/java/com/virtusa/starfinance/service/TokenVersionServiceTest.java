@@ -0,0 +1,80 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.repository.CustomerRepository;
+import com.virtusa.starfinance.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private TokenVersionService tokenVersionService;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionService = new TokenVersionService(customerRepository, employeeRepository, true, 60, 100);
+    }
+
+    @Test
+    void isCurrent_RepeatedChecks_QueryDatabaseOnce() {
+        // ARRANGE
+        when(customerRepository.findTokenVersionByEmail("ravi@example.com")).thenReturn(Optional.of(0));
+
+        // ACT & ASSERT
+        assertTrue(tokenVersionService.isCurrent("ravi@example.com", false, 0));
+        assertTrue(tokenVersionService.isCurrent("ravi@example.com", false, 0));
+        assertFalse(tokenVersionService.isCurrent("ravi@example.com", false, 1));
+        verify(customerRepository, times(1)).findTokenVersionByEmail("ravi@example.com");
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void isCurrent_AfterCredentialsChanged_RejectsOldVersion() {
+        // ARRANGE
+        when(employeeRepository.findTokenVersionByUsername("staff01"))
+                .thenReturn(Optional.of(2))
+                .thenReturn(Optional.of(3));
+        assertTrue(tokenVersionService.isCurrent("staff01", true, 2));
+
+        // ACT
+        tokenVersionService.onCredentialsChanged(new AuthService.CredentialsChangedEvent("staff01"));
+
+        // ASSERT
+        assertFalse(tokenVersionService.isCurrent("staff01", true, 2));
+        assertTrue(tokenVersionService.isCurrent("staff01", true, 3));
+    }
+
+    @Test
+    void isCurrent_UnknownAccount_RejectsAndCachesMiss() {
+        // ARRANGE
+        when(customerRepository.findTokenVersionByEmail("gone@example.com")).thenReturn(Optional.empty());
+
+        // ACT & ASSERT
+        assertFalse(tokenVersionService.isCurrent("gone@example.com", false, 0));
+        assertFalse(tokenVersionService.isCurrent("gone@example.com", false, 0));
+        verify(customerRepository, times(1)).findTokenVersionByEmail("gone@example.com");
+    }
+
+    @Test
+    void isCurrent_Disabled_NeverQueriesDatabase() {
+        // ARRANGE
+        TokenVersionService disabled = new TokenVersionService(customerRepository, employeeRepository, false, 60, 100);
+
+        // ACT & ASSERT
+        assertTrue(disabled.isCurrent("ravi@example.com", false, 7));
+        verifyNoInteractions(customerRepository, employeeRepository);
+    }
+}
@@ -0,0 +1,130 @@
+package com.virtusa.starfinance.service;
+
+import com.virtusa.starfinance.entity.LoginIdentity;
+import com.virtusa.starfinance.entity.LoginIdentity.AccountType;
+import com.virtusa.starfinance.repository.CustomerRepository;
+import com.virtusa.starfinance.repository.EmployeeRepository;
+import com.virtusa.starfinance.repository.LoginIdentityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private LoginIdentityRepository loginIdentityRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new UserDetailsServiceImpl(customerRepository, employeeRepository, loginIdentityRepository, meterRegistry, 300, 100);
+    }
+
+    private LoginIdentity customer(String password) {
+        return new LoginIdentity(AccountType.CUSTOMER, 7L, 1, "ravi@example.com", password, "ROLE_CUSTOMER", 0);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void loadUserByUsername_RepeatedLogins_HitDatabaseOnce() {
+        // ARRANGE
+        when(loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc("ravi@example.com")).thenReturn(Optional.of(customer("$2a$10$hash")));
+
+        // ACT
+        userDetailsService.loadUserByUsername("ravi@example.com");
+        UserDetails second = userDetailsService.loadUserByUsername("ravi@example.com");
+
+        // ASSERT
+        assertEquals("$2a$10$hash", second.getPassword());
+        assertEquals(7L, ((AuthenticatedUser) second).getUserId());
+        verify(loginIdentityRepository, times(1)).findFirstByLoginOrderByPrecedenceAsc("ravi@example.com");
+        verifyNoInteractions(employeeRepository);
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void loadUserByUsername_ErasedCredentials_DoNotLeakIntoCache() {
+        // ARRANGE
+        when(loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc("ravi@example.com")).thenReturn(Optional.of(customer("$2a$10$hash")));
+
+        // ACT: ProviderManager erases the password of the UserDetails after a successful login
+        ((User) userDetailsService.loadUserByUsername("ravi@example.com")).eraseCredentials();
+        UserDetails next = userDetailsService.loadUserByUsername("ravi@example.com");
+
+        // ASSERT
+        assertEquals("$2a$10$hash", next.getPassword());
+    }
+
+    @Test
+    void loadUserByUsername_AfterCredentialsChanged_ReloadsFromDatabase() {
+        // ARRANGE
+        when(loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc("ravi@example.com"))
+                .thenReturn(Optional.of(customer("$2a$10$hash")))
+                .thenReturn(Optional.of(customer("$2a$10$newhash")));
+        userDetailsService.loadUserByUsername("ravi@example.com");
+
+        // ACT
+        userDetailsService.onCredentialsChanged(new AuthService.CredentialsChangedEvent("ravi@example.com"));
+        UserDetails reloaded = userDetailsService.loadUserByUsername("ravi@example.com");
+
+        // ASSERT
+        assertEquals("$2a$10$newhash", reloaded.getPassword());
+        verify(loginIdentityRepository, times(2)).findFirstByLoginOrderByPrecedenceAsc("ravi@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_UnknownUser_ThrowsAndIsNotCached() {
+        // ARRANGE
+        LoginIdentity employee = new LoginIdentity(AccountType.EMPLOYEE, 3L, 0, "staff01", "$2a$10$staff", "ROLE_BANK_STAFF", 0);
+        when(loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc("staff01"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(employee));
+
+        // ACT & ASSERT: a miss is retried, so an employee created afterwards can log in
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("staff01"));
+        UserDetails created = userDetailsService.loadUserByUsername("staff01");
+        assertEquals("ROLE_BANK_STAFF", created.getAuthorities().iterator().next().getAuthority());
+        assertTrue(((AuthenticatedUser) created).isEmployee());
+    }
+
+    @Test
+    void updatePassword_StoresRehashAndRefreshesCache() {
+        // ARRANGE
+        when(loginIdentityRepository.findFirstByLoginOrderByPrecedenceAsc("ravi@example.com")).thenReturn(Optional.of(customer("$2a$10$hash")));
+        UserDetails loaded = userDetailsService.loadUserByUsername("ravi@example.com");
+
+        // ACT
+        UserDetails upgraded = userDetailsService.updatePassword(loaded, "$argon2id$v=19$m=19456,t=2,p=1$new");
+
+        // ASSERT
+        verify(customerRepository).updatePasswordHash(7L, "$argon2id$v=19$m=19456,t=2,p=1$new");
+        assertEquals("$argon2id$v=19$m=19456,t=2,p=1$new", upgraded.getPassword());
+        assertEquals("$argon2id$v=19$m=19456,t=2,p=1$new",
+                userDetailsService.loadUserByUsername("ravi@example.com").getPassword());
+        verify(loginIdentityRepository, times(1)).findFirstByLoginOrderByPrecedenceAsc("ravi@example.com");
+        verifyNoInteractions(employeeRepository);
+    }
+}